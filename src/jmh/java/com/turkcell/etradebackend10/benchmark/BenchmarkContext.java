@@ -0,0 +1,40 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.Etradebackend10Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without a web server against a private in-memory H2 database and seeds it
+ * with {@link BenchmarkDataset}. The overrides are passed as command line arguments so they win over
+ * application.yaml.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, int productCount, String... extraArguments) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"
+        ));
+        arguments.addAll(List.of(extraArguments));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Etradebackend10Application.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+        BenchmarkDataset.seed(context.getBean(JdbcTemplate.class), productCount);
+        return context;
+    }
+}
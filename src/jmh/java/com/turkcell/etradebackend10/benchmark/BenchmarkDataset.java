@@ -0,0 +1,88 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsResponse;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixed-seed catalogue shared by all benchmarks, so runs on different machines and commits
+ * measure exactly the same rows.
+ */
+final class BenchmarkDataset {
+
+    static final int CATEGORY_COUNT = 20;
+
+    private static final long SEED = 42L;
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private BenchmarkDataset() {
+    }
+
+    static List<GetByIdProductResponse> products(int count) {
+        Random random = new Random(SEED);
+        List<GetByIdProductResponse> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            int categoryId = 1 + random.nextInt(CATEGORY_COUNT);
+            products.add(new GetByIdProductResponse(
+                    i,
+                    "Ürün " + i,
+                    "Açıklama " + i,
+                    Math.round((1 + random.nextDouble() * 999) * 100) / 100.0,
+                    random.nextInt(500),
+                    "https://cdn.example.com/products/" + i + ".jpg",
+                    categoryId,
+                    categoryName(categoryId),
+                    BASE_DATE.plusMinutes(i),
+                    null,
+                    true, 0
+            ));
+        }
+        return products;
+    }
+
+    static List<GetAllProductsResponse> listResponses(int count) {
+        return products(count).stream()
+                .map(product -> new GetAllProductsResponse(
+                        product.getId(),
+                        product.getName(),
+                        product.getUnitPrice(),
+                        product.getUnitsInStock(),
+                        product.getImageUrl(),
+                        product.getCategoryId(),
+                        product.getCategoryName()))
+                .toList();
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int productCount) {
+        List<Object[]> categories = new ArrayList<>(CATEGORY_COUNT);
+        for (int id = 1; id <= CATEGORY_COUNT; id++) {
+            categories.add(new Object[]{id, categoryName(id), "Açıklama " + id, Timestamp.valueOf(BASE_DATE), true});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into categories (id, name, description, created_date, is_active) values (?, ?, ?, ?, ?)",
+                categories);
+
+        List<Object[]> products = new ArrayList<>(productCount);
+        for (GetByIdProductResponse product : products(productCount)) {
+            products.add(new Object[]{
+                    product.getId(), product.getName(), product.getDescription(), product.getUnitPrice(),
+                    product.getUnitsInStock(), product.getImageUrl(), product.getCategoryId(),
+                    Timestamp.valueOf(product.getCreatedDate()), true
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into products (id, name, description, unit_price, units_in_stock, image_url, category_id, created_date, is_active)"
+                        + " values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                products);
+    }
+
+    private static String categoryName(int id) {
+        return "Kategori " + id;
+    }
+}
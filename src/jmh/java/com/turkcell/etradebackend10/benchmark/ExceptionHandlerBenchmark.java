@@ -0,0 +1,67 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.api.controllers.ProductsController;
+import com.turkcell.etradebackend10.business.exceptions.BusinessErrorResponse;
+import com.turkcell.etradebackend10.business.exceptions.BusinessException;
+import com.turkcell.etradebackend10.business.exceptions.GlobalExceptionHandler;
+import com.turkcell.etradebackend10.business.exceptions.ValidationErrorResponse;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.CreateProductRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error paths of {@link GlobalExceptionHandler}. {@code throwAndHandleBusinessException} includes
+ * creating the exception and its stack trace, which is what a failed business rule really costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private BusinessException businessException;
+    private MethodArgumentNotValidException validationException;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        businessException = new BusinessException("Ürün bulunamadı. ID: 1");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new CreateProductRequest(), "request");
+        bindingResult.addError(new FieldError("request", "name", "Ürün adı boş olamaz."));
+        bindingResult.addError(new FieldError("request", "unitPrice", "Birim fiyat 0'dan küçük olamaz."));
+        bindingResult.addError(new FieldError("request", "unitsInStock", "Stok adedi 0'dan küçük olamaz."));
+        MethodParameter parameter = new MethodParameter(
+                ProductsController.class.getMethod("add", CreateProductRequest.class), 0);
+        validationException = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<BusinessErrorResponse> handleBusinessException() {
+        return handler.handleBusinessException(businessException);
+    }
+
+    @Benchmark
+    public ResponseEntity<BusinessErrorResponse> throwAndHandleBusinessException() {
+        try {
+            throw new BusinessException("Ürün bulunamadı. ID: 1");
+        } catch (BusinessException exception) {
+            return handler.handleBusinessException(exception);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ValidationErrorResponse> handleValidationException() {
+        return handler.handleValidationException(validationException);
+    }
+}
@@ -0,0 +1,73 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full product listing: the DTO projection behind an unfiltered {@code GET /api/products} against
+ * loading entities and mapping them by hand, which is how the endpoint used to work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductListBenchmark {
+
+    @Param({"1000", "100000"})
+    private int productCount;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductRepository productRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("list" + productCount, productCount);
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<GetAllProductsResponse> projection() {
+        return productService.getAll(new GetAllProductsRequest());
+    }
+
+    @Benchmark
+    public List<GetAllProductsResponse> entityMapping() {
+        return readOnlyTransaction.execute(status -> productRepository.findAll().stream()
+                .map(ProductListBenchmark::toResponse)
+                .toList());
+    }
+
+    private static GetAllProductsResponse toResponse(Product product) {
+        return new GetAllProductsResponse(
+                product.getId(),
+                product.getName(),
+                product.getUnitPrice(),
+                product.getUnitsInStock(),
+                product.getImageUrl(),
+                product.getCategory() != null ? product.getCategory().getId() : 0,
+                product.getCategory() != null ? product.getCategory().getName() : null
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ProductService.getById} with the Caffeine cache in front of it and with caching disabled,
+ * so every call goes through the business rule and the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductLookupBenchmark {
+
+    private static final int PRODUCT_COUNT = 10_000;
+
+    @Param({"caffeine", "none"})
+    private String cacheType;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+
+    @State(Scope.Thread)
+    public static class Ids {
+
+        private final int[] ids = new int[1 << 12];
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(7L);
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = 1 + random.nextInt(PRODUCT_COUNT);
+            }
+        }
+
+        int next() {
+            return ids[next++ & (ids.length - 1)];
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("lookup" + cacheType, PRODUCT_COUNT, "--spring.cache.type=" + cacheType);
+        productService = context.getBean(ProductService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public GetByIdProductResponse getById(Ids ids) {
+        return productService.getById(ids.next());
+    }
+}
@@ -0,0 +1,40 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.business.search.ProductSearchIndex;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.SearchProductsPageResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ProductSearchIndex.search} for a first page of 20 results. {@code "urun 12"} is a narrow
+ * query with a prefix on its last term; {@code "aciklama"} matches every product, so the whole
+ * catalogue has to be scored and sorted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    private int productCount;
+
+    @Param({"urun 12", "aciklama"})
+    private String query;
+
+    private ProductSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(BenchmarkDataset.products(productCount));
+    }
+
+    @Benchmark
+    public SearchProductsPageResponse search() {
+        return index.search(query, 0, 20);
+    }
+}
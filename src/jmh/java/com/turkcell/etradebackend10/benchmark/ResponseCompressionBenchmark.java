@@ -0,0 +1,57 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.business.encoding.ResponseCompression;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of gzipping a product list body against the bytes it saves. {@code json} is the
+ * uncompressed baseline, {@code jsonAndGzip} is what a dynamically compressed request pays, and
+ * {@code gzip} alone is the one-off cost a snapshot pays when it is rebuilt. The body sizes are
+ * printed once per trial, so the time difference can be read against the bytes saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({"20", "1000", "10000"})
+    private int productCount;
+
+    private JsonMapper jsonMapper;
+    private List<GetAllProductsResponse> products;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        products = BenchmarkDataset.listResponses(productCount);
+        json = jsonMapper.writeValueAsBytes(products);
+
+        int compressed = ResponseCompression.gzip(json).length;
+        System.out.printf("%n%d products: %d bytes json, %d bytes gzip (%.1f%% saved)%n",
+                productCount, json.length, compressed, 100.0 * (json.length - compressed) / json.length);
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return jsonMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] jsonAndGzip() {
+        return ResponseCompression.gzip(jsonMapper.writeValueAsBytes(products));
+    }
+
+    @Benchmark
+    public byte[] gzip() {
+        return ResponseCompression.gzip(json);
+    }
+}
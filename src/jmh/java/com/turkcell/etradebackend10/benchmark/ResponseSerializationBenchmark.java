@@ -0,0 +1,53 @@
+package com.turkcell.etradebackend10.benchmark;
+
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsPageResponse;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsResponse;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the product response bodies, measured without Spring or the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int productCount;
+
+    private JsonMapper jsonMapper;
+    private List<GetAllProductsResponse> products;
+    private GetAllProductsPageResponse page;
+    private GetByIdProductResponse product;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        products = BenchmarkDataset.listResponses(productCount);
+        page = new GetAllProductsPageResponse(products.subList(0, 100), "MTAw", true);
+        product = BenchmarkDataset.products(1).get(0);
+    }
+
+    @Benchmark
+    public byte[] productList() {
+        return jsonMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] productPage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] productById() {
+        return jsonMapper.writeValueAsBytes(product);
+    }
+}
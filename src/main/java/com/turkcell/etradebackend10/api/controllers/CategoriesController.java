@@ -1,12 +1,18 @@
 package com.turkcell.etradebackend10.api.controllers;
 
 import com.turkcell.etradebackend10.business.abstracts.CategoryService;
+import com.turkcell.etradebackend10.business.encoding.ResponseCompression;
 import com.turkcell.etradebackend10.entities.dtos.requests.category.CreateCategoryRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.category.UpdateCategoryRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.category.*;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.List;
 
@@ -15,15 +21,44 @@ import java.util.List;
 public class CategoriesController {
 
     private final CategoryService categoryService;
+    private final JsonMapper jsonMapper;
 
-    public CategoriesController(CategoryService categoryService) {
+    public CategoriesController(CategoryService categoryService, JsonMapper jsonMapper) {
         this.categoryService = categoryService;
+        this.jsonMapper = jsonMapper;
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<GetAllCategoriesResponse> getAll() {
-        return categoryService.getAll();
+    public ResponseEntity<byte[]> getAll(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                         WebRequest webRequest) {
+        // Served as the snapshot's pre-serialized (and pre-compressed) bytes: no query, no JSON writing
+        // and no compression per request.
+        GetAllCategoriesSnapshot snapshot = categoryService.getAllSnapshot();
+        String matchedTag = ResponseCompression.matchedTag(ifNoneMatch, snapshot.getEtag());
+        if (matchedTag != null && webRequest.checkNotModified(matchedTag)) {
+            return null;
+        }
+
+        boolean gzip = snapshot.getGzip() != null && ResponseCompression.acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(gzip ? ResponseCompression.gzipTag(snapshot.getEtag()) : snapshot.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, ResponseCompression.GZIP);
+        }
+        return builder.body(gzip ? snapshot.getGzip() : snapshot.getJson());
+    }
+
+    // Counts move with every product write, which the category tag does not follow, so no ETag here.
+    // Written as bytes so Tomcat knows the length and applies its compression threshold.
+    @GetMapping(params = "withCounts=true")
+    public ResponseEntity<byte[]> getAllWithCounts() {
+        List<GetAllCategoriesResponse> categories = categoryService.getAllWithCounts();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonMapper.writeValueAsBytes(categories));
     }
 
     @GetMapping("/{id}")
@@ -49,4 +84,10 @@ public class CategoriesController {
     public DeletedCategoryResponse delete(@PathVariable int id) {
         return categoryService.delete(id);
     }
+
+    @PostMapping("/{id}/restore")
+    @ResponseStatus(HttpStatus.OK)
+    public RestoredCategoryResponse restore(@PathVariable int id) {
+        return categoryService.restore(id);
+    }
 }
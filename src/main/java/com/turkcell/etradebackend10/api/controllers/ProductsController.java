@@ -1,35 +1,122 @@
 package com.turkcell.etradebackend10.api.controllers;
 
 import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import com.turkcell.etradebackend10.business.encoding.EncodedJson;
+import com.turkcell.etradebackend10.business.encoding.ProductJsonCache;
+import com.turkcell.etradebackend10.business.encoding.ResponseCompression;
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.CreateProductRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.ReserveStockRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.UpdateProductRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.product.*;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductsController {
 
+    private static final byte NEWLINE = '\n';
+
     private final ProductService productService;
+    private final JsonMapper jsonMapper;
+    private final EntityTagRegistry entityTagRegistry;
+    private final ProductJsonCache productJsonCache;
 
-    public ProductsController(ProductService productService) {
+    public ProductsController(ProductService productService, JsonMapper jsonMapper, EntityTagRegistry entityTagRegistry, ProductJsonCache productJsonCache) {
         this.productService = productService;
+        this.jsonMapper = jsonMapper;
+        this.entityTagRegistry = entityTagRegistry;
+        this.productJsonCache = productJsonCache;
     }
 
+    // Written as bytes so the response has a Content-Length: Tomcat only honours
+    // server.compression.min-response-size for bodies whose length it knows.
     @GetMapping
+    public ResponseEntity<byte[]> getAll(@Valid GetAllProductsRequest request) {
+        List<GetAllProductsResponse> products = productService.getAll(request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonMapper.writeValueAsBytes(products));
+    }
+
+    @GetMapping(params = "limit")
     @ResponseStatus(HttpStatus.OK)
-    public List<GetAllProductsResponse> getAll() {
-        return productService.getAll();
+    public GetAllProductsPageResponse getAllPaged(@Valid GetAllProductsRequest request,
+                                                  @RequestParam(required = false) String after,
+                                                  @RequestParam int limit) {
+        return productService.getAllPaged(request, after, limit);
     }
 
-    @GetMapping("/{id}")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = outputStream -> productService.exportAll(response -> {
+            try {
+                outputStream.write(jsonMapper.writeValueAsBytes(response));
+                outputStream.write(NEWLINE);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public GetByIdProductResponse getById(@PathVariable int id) {
-        return productService.getById(id);
+    public SearchProductsPageResponse search(@RequestParam String q,
+                                             @RequestParam(defaultValue = "0") int page,
+                                             @RequestParam(defaultValue = "20") int size) {
+        return productService.search(q, page, size);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getById(@PathVariable int id,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                          WebRequest webRequest) {
+        // The tag is read before the lookup, so the body sent with it is never older than the tag.
+        String etag = entityTagRegistry.productTag(id);
+        String matchedTag = ResponseCompression.matchedTag(ifNoneMatch, etag);
+        if (matchedTag != null && webRequest.checkNotModified(matchedTag)) {
+            return null;
+        }
+
+        EncodedJson body = etag != null ? productJsonCache.get(id, etag) : null;
+        boolean cached = body != null;
+        if (!cached) {
+            GetByIdProductResponse response = productService.getById(id);
+            if (etag == null) {
+                etag = entityTagRegistry.productTag(id, response.getCreatedDate(), response.getUpdatedDate());
+            }
+            body = productJsonCache.put(id, etag, response);
+        }
+
+        boolean gzip = body.getGzip() != null && ResponseCompression.acceptsGzip(acceptEncoding);
+        byte[] bytes = gzip ? body.getGzip() : body.getJson();
+        if (cached) {
+            productJsonCache.servedFromCache(bytes, gzip);
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(gzip ? ResponseCompression.gzipTag(etag) : etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, ResponseCompression.GZIP);
+        }
+        return builder.body(bytes);
     }
 
     @PostMapping
@@ -38,6 +125,18 @@ public class ProductsController {
         return productService.add(request);
     }
 
+    @PostMapping("/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<CreatedProductResponse> addAll(@RequestBody @Valid List<CreateProductRequest> requests) {
+        return productService.addAll(requests);
+    }
+
+    @PostMapping("/{id}/stock/reserve")
+    @ResponseStatus(HttpStatus.OK)
+    public ReservedStockResponse reserveStock(@PathVariable int id, @RequestBody @Valid ReserveStockRequest request) {
+        return productService.reserveStock(id, request);
+    }
+
     @PutMapping
     @ResponseStatus(HttpStatus.OK)
     public UpdatedProductResponse update(@RequestBody @Valid UpdateProductRequest request) {
@@ -49,4 +148,10 @@ public class ProductsController {
     public DeletedProductResponse delete(@PathVariable int id) {
         return productService.delete(id);
     }
+
+    @PostMapping("/{id}/restore")
+    @ResponseStatus(HttpStatus.OK)
+    public RestoredProductResponse restore(@PathVariable int id) {
+        return productService.restore(id);
+    }
 }
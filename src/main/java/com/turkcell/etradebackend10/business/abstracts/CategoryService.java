@@ -10,6 +10,10 @@ public interface CategoryService {
 
     List<GetAllCategoriesResponse> getAll();
 
+    GetAllCategoriesSnapshot getAllSnapshot();
+
+    List<GetAllCategoriesResponse> getAllWithCounts();
+
     GetByIdCategoryResponse getById(int id);
 
     CreatedCategoryResponse add(CreateCategoryRequest request);
@@ -17,4 +21,6 @@ public interface CategoryService {
     UpdatedCategoryResponse update(UpdateCategoryRequest request);
 
     DeletedCategoryResponse delete(int id);
+
+    RestoredCategoryResponse restore(int id);
 }
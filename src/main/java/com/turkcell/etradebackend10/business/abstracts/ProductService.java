@@ -1,20 +1,35 @@
 package com.turkcell.etradebackend10.business.abstracts;
 
 import com.turkcell.etradebackend10.entities.dtos.requests.product.CreateProductRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.ReserveStockRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.UpdateProductRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.product.*;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
-    List<GetAllProductsResponse> getAll();
+    List<GetAllProductsResponse> getAll(GetAllProductsRequest request);
+
+    GetAllProductsPageResponse getAllPaged(GetAllProductsRequest request, String after, int limit);
+
+    SearchProductsPageResponse search(String query, int page, int size);
 
     GetByIdProductResponse getById(int id);
 
+    void exportAll(Consumer<GetByIdProductResponse> consumer);
+
     CreatedProductResponse add(CreateProductRequest request);
 
+    List<CreatedProductResponse> addAll(List<CreateProductRequest> requests);
+
     UpdatedProductResponse update(UpdateProductRequest request);
 
     DeletedProductResponse delete(int id);
+
+    RestoredProductResponse restore(int id);
+
+    ReservedStockResponse reserveStock(int id, ReserveStockRequest request);
 }
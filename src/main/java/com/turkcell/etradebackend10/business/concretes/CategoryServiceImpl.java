@@ -1,44 +1,76 @@
 package com.turkcell.etradebackend10.business.concretes;
 
 import com.turkcell.etradebackend10.business.abstracts.CategoryService;
+import com.turkcell.etradebackend10.business.encoding.ResponseCompression;
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
 import com.turkcell.etradebackend10.business.rules.CategoryBusinessRules;
+import com.turkcell.etradebackend10.business.search.ProductSearchIndex;
+import com.turkcell.etradebackend10.business.transaction.TransactionHooks;
+import com.turkcell.etradebackend10.config.CacheConfig;
+import com.turkcell.etradebackend10.config.MetricsConfig;
 import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
 import com.turkcell.etradebackend10.entities.concretes.Category;
 import com.turkcell.etradebackend10.entities.dtos.requests.category.CreateCategoryRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.category.UpdateCategoryRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.category.*;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryBusinessRules categoryBusinessRules;
+    private final ProductSearchIndex productSearchIndex;
+    private final EntityTagRegistry entityTagRegistry;
+    private final JsonMapper jsonMapper;
+    private final CacheManager cacheManager;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryBusinessRules categoryBusinessRules) {
+    // Categories change a few times a day, so the list is read and serialized once per change, not per request.
+    private final AtomicReference<GetAllCategoriesSnapshot> snapshot = new AtomicReference<>();
+    // A lock rather than synchronized: the holder runs a query, which must not pin a virtual thread's carrier.
+    private final Lock snapshotLock = new ReentrantLock();
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryBusinessRules categoryBusinessRules, ProductSearchIndex productSearchIndex, EntityTagRegistry entityTagRegistry, JsonMapper jsonMapper, CacheManager cacheManager) {
         this.categoryRepository = categoryRepository;
         this.categoryBusinessRules = categoryBusinessRules;
+        this.productSearchIndex = productSearchIndex;
+        this.entityTagRegistry = entityTagRegistry;
+        this.jsonMapper = jsonMapper;
+        this.cacheManager = cacheManager;
     }
 
     @Override
     public List<GetAllCategoriesResponse> getAll() {
-        List<Category> categories = categoryRepository.findAll();
-
-        return categories.stream().map(category -> {
-            GetAllCategoriesResponse response = new GetAllCategoriesResponse();
-            response.setId(category.getId());
-            response.setName(category.getName());
-            return response;
-        }).toList();
+        return getAllSnapshot().getCategories();
     }
 
     @Override
-    public GetByIdCategoryResponse getById(int id) {
-        categoryBusinessRules.checkIfCategoryExistsById(id);
+    public GetAllCategoriesSnapshot getAllSnapshot() {
+        GetAllCategoriesSnapshot current = snapshot.get();
+        return current != null ? current : loadSnapshot();
+    }
+
+    @Override
+    public List<GetAllCategoriesResponse> getAllWithCounts() {
+        return categoryRepository.findAllCategoryResponsesWithCounts();
+    }
 
-        Category category = categoryRepository.findById(id).orElseThrow();
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_BY_ID_CACHE, key = "#id")
+    public GetByIdCategoryResponse getById(int id) {
+        Category category = categoryBusinessRules.getCategoryIfExists(id);
 
         GetByIdCategoryResponse response = new GetByIdCategoryResponse();
         response.setId(category.getId());
@@ -47,56 +79,131 @@ public class CategoryServiceImpl implements CategoryService {
         response.setCreatedDate(category.getCreatedDate());
         response.setUpdatedDate(category.getUpdatedDate());
         response.setActive(category.isActive());
+        response.setVersion(category.getVersion());
         return response;
     }
 
     @Override
     public CreatedCategoryResponse add(CreateCategoryRequest request) {
-        categoryBusinessRules.checkIfCategoryNameAlreadyExists(request.getName());
-
         Category category = new Category();
         category.setName(request.getName());
         category.setDescription(request.getDescription());
 
-        Category savedCategory = categoryRepository.save(category);
+        Category savedCategory = categoryBusinessRules.saveIfCategoryNameUnique(category);
+        entityTagRegistry.categoriesChanged();
+        TransactionHooks.afterCommit(this::refreshSnapshot);
 
         CreatedCategoryResponse response = new CreatedCategoryResponse();
         response.setId(savedCategory.getId());
         response.setName(savedCategory.getName());
         response.setDescription(savedCategory.getDescription());
         response.setCreatedDate(savedCategory.getCreatedDate());
+        response.setVersion(savedCategory.getVersion());
         return response;
     }
 
     @Override
     public UpdatedCategoryResponse update(UpdateCategoryRequest request) {
-        categoryBusinessRules.checkIfCategoryExistsById(request.getId());
-        categoryBusinessRules.checkIfCategoryNameAlreadyExistsForUpdate(request.getId(), request.getName());
+        Category category = categoryBusinessRules.getCategoryIfExists(request.getId());
+        categoryBusinessRules.checkIfCategoryVersionMatches(category, request.getVersion());
 
-        Category category = categoryRepository.findById(request.getId()).orElseThrow();
         category.setName(request.getName());
         category.setDescription(request.getDescription());
 
-        Category updatedCategory = categoryRepository.save(category);
+        Category updatedCategory = categoryBusinessRules.saveIfCategoryNameUniqueForUpdate(category);
+        productSearchIndex.renameCategory(updatedCategory.getId(), updatedCategory.getName());
+        TransactionHooks.afterCommit(() -> evictCachedCategory(updatedCategory.getId()));
+        entityTagRegistry.categoriesChanged();
+        TransactionHooks.afterCommit(this::refreshSnapshot);
 
         UpdatedCategoryResponse response = new UpdatedCategoryResponse();
         response.setId(updatedCategory.getId());
         response.setName(updatedCategory.getName());
         response.setDescription(updatedCategory.getDescription());
         response.setUpdatedDate(updatedCategory.getUpdatedDate());
+        response.setVersion(updatedCategory.getVersion());
         return response;
     }
 
     @Override
     public DeletedCategoryResponse delete(int id) {
-        categoryBusinessRules.checkIfCategoryExistsById(id);
-
-        Category category = categoryRepository.findById(id).orElseThrow();
-        categoryRepository.delete(category);
+        Category category = categoryBusinessRules.getCategoryIfExists(id);
+        categoryBusinessRules.checkIfCategoryHasNoActiveProducts(id);
+        category.setActive(false);
+        category.setDeletedDate(LocalDateTime.now());
+        categoryRepository.save(category);
+        TransactionHooks.afterCommit(() -> evictCachedCategory(id));
+        entityTagRegistry.categoriesChanged();
+        TransactionHooks.afterCommit(this::refreshSnapshot);
 
         DeletedCategoryResponse response = new DeletedCategoryResponse();
         response.setId(category.getId());
         response.setName(category.getName());
         return response;
     }
+
+    @Override
+    public RestoredCategoryResponse restore(int id) {
+        categoryBusinessRules.checkIfCategoryCanBeRestored(id);
+        categoryRepository.restore(id, LocalDateTime.now());
+        entityTagRegistry.categoriesChanged();
+        TransactionHooks.afterCommit(this::refreshSnapshot);
+
+        Category category = categoryBusinessRules.getCategoryIfExists(id);
+        RestoredCategoryResponse response = new RestoredCategoryResponse();
+        response.setId(category.getId());
+        response.setName(category.getName());
+        response.setVersion(category.getVersion());
+        return response;
+    }
+
+    // Every product tag carries the categories version, so the product bodies have to be gone before it
+    // moves; otherwise a reader holding the new tag could store an old body under it.
+    private void evictCachedCategory(int id) {
+        Cache categoryCache = cacheManager.getCache(CacheConfig.CATEGORY_BY_ID_CACHE);
+        if (categoryCache != null) {
+            categoryCache.evict(id);
+        }
+        for (String cacheName : List.of(CacheConfig.PRODUCT_BY_ID_CACHE, CacheConfig.PRODUCT_JSON_CACHE)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private GetAllCategoriesSnapshot loadSnapshot() {
+        snapshotLock.lock();
+        try {
+            GetAllCategoriesSnapshot current = snapshot.get();
+            if (current == null) {
+                current = buildSnapshot();
+                snapshot.set(current);
+            }
+            return current;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    // Serialized with loadSnapshot, so a reader building from pre-commit data cannot overwrite the fresh copy.
+    private void refreshSnapshot() {
+        snapshotLock.lock();
+        try {
+            snapshot.set(null);
+            snapshot.set(buildSnapshot());
+        } catch (RuntimeException exception) {
+            // The write itself has committed; the next reader rebuilds the list instead.
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private GetAllCategoriesSnapshot buildSnapshot() {
+        // The tag is read before the query, so the list stored with it is never older than the tag.
+        String etag = entityTagRegistry.categoriesTag();
+        List<GetAllCategoriesResponse> categories = categoryRepository.findAllCategoryResponses();
+        byte[] json = jsonMapper.writeValueAsBytes(categories);
+        return new GetAllCategoriesSnapshot(categories, json, ResponseCompression.gzipIfSmaller(json), etag);
+    }
 }
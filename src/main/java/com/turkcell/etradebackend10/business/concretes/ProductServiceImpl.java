@@ -1,76 +1,133 @@
 package com.turkcell.etradebackend10.business.concretes;
 
 import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
 import com.turkcell.etradebackend10.business.rules.ProductBusinessRules;
+import com.turkcell.etradebackend10.business.rules.ProductNameFilter;
+import com.turkcell.etradebackend10.business.search.ProductSearchIndex;
+import com.turkcell.etradebackend10.business.stock.StockLedger;
 import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
 import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
 import com.turkcell.etradebackend10.entities.concretes.Category;
 import com.turkcell.etradebackend10.entities.concretes.Product;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.CreateProductRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.ReserveStockRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.UpdateProductRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.product.*;
+import com.turkcell.etradebackend10.business.exceptions.BusinessException;
+import com.turkcell.etradebackend10.business.transaction.TransactionHooks;
+import com.turkcell.etradebackend10.config.CacheConfig;
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductBusinessRules productBusinessRules;
+    private final EntityManager entityManager;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductNameFilter productNameFilter;
+    private final EntityTagRegistry entityTagRegistry;
+    private final StockLedger stockLedger;
+    private final CacheManager cacheManager;
 
-    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository, ProductBusinessRules productBusinessRules) {
+    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository, ProductBusinessRules productBusinessRules, EntityManager entityManager, ProductSearchIndex productSearchIndex, ProductNameFilter productNameFilter, EntityTagRegistry entityTagRegistry, StockLedger stockLedger, CacheManager cacheManager) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.productBusinessRules = productBusinessRules;
+        this.entityManager = entityManager;
+        this.productSearchIndex = productSearchIndex;
+        this.productNameFilter = productNameFilter;
+        this.entityTagRegistry = entityTagRegistry;
+        this.stockLedger = stockLedger;
+        this.cacheManager = cacheManager;
     }
 
     @Override
-    public List<GetAllProductsResponse> getAll() {
-        List<Product> products = productRepository.findAll();
-
-        return products.stream().map(product -> {
-            GetAllProductsResponse response = new GetAllProductsResponse();
-            response.setId(product.getId());
-            response.setName(product.getName());
-            response.setUnitPrice(product.getUnitPrice());
-            response.setUnitsInStock(product.getUnitsInStock());
-            response.setImageUrl(product.getImageUrl());
-            if (product.getCategory() != null) {
-                response.setCategoryId(product.getCategory().getId());
-                response.setCategoryName(product.getCategory().getName());
-            }
-            return response;
-        }).toList();
+    public List<GetAllProductsResponse> getAll(GetAllProductsRequest request) {
+        productBusinessRules.checkIfPriceRangeValid(request.getMinPrice(), request.getMaxPrice());
+        Sort sort = productBusinessRules.getSortIfValid(request.getSort());
+
+        return productRepository.findProductResponses(request, sort);
     }
 
     @Override
-    public GetByIdProductResponse getById(int id) {
-        productBusinessRules.checkIfProductExistsById(id);
+    public GetAllProductsPageResponse getAllPaged(GetAllProductsRequest request, String after, int limit) {
+        productBusinessRules.checkIfPageLimitValid(limit);
+        productBusinessRules.checkIfPriceRangeValid(request.getMinPrice(), request.getMaxPrice());
+        productBusinessRules.checkIfSortNotRequestedForPaging(request.getSort());
 
-        Product product = productRepository.findById(id).orElseThrow();
+        int afterId = after == null || after.isBlank() ? 0 : decodeCursor(after);
 
-        GetByIdProductResponse response = new GetByIdProductResponse();
-        response.setId(product.getId());
-        response.setName(product.getName());
-        response.setDescription(product.getDescription());
-        response.setUnitPrice(product.getUnitPrice());
-        response.setUnitsInStock(product.getUnitsInStock());
-        response.setImageUrl(product.getImageUrl());
-        if (product.getCategory() != null) {
-            response.setCategoryId(product.getCategory().getId());
-            response.setCategoryName(product.getCategory().getName());
+        // One extra row tells us whether another page exists without a count query.
+        List<GetAllProductsResponse> items = productRepository.findProductResponsesAfter(request, afterId, Limit.of(limit + 1));
+        boolean hasNext = items.size() > limit;
+        if (hasNext) {
+            items = items.subList(0, limit);
+        }
+
+        GetAllProductsPageResponse response = new GetAllProductsPageResponse();
+        response.setItems(items);
+        response.setHasNext(hasNext);
+        if (hasNext) {
+            response.setNextCursor(encodeCursor(items.get(items.size() - 1).getId()));
         }
-        response.setCreatedDate(product.getCreatedDate());
-        response.setUpdatedDate(product.getUpdatedDate());
-        response.setActive(product.isActive());
         return response;
     }
 
+    @Override
+    public SearchProductsPageResponse search(String query, int page, int size) {
+        productBusinessRules.checkIfSearchQueryValid(query);
+        productBusinessRules.checkIfPageNumberValid(page);
+        productBusinessRules.checkIfPageLimitValid(size);
+
+        return productSearchIndex.search(query, page, size);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_BY_ID_CACHE, key = "#id")
+    public GetByIdProductResponse getById(int id) {
+        Product product = productBusinessRules.getProductIfExists(id);
+
+        return toGetByIdProductResponse(product);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<GetByIdProductResponse> consumer) {
+        try (Stream<Product> products = productRepository.streamAllForExport()) {
+            products.forEach(product -> {
+                consumer.accept(toGetByIdProductResponse(product));
+                // Detach each row once written so the persistence context stays flat across the export.
+                entityManager.detach(product);
+            });
+        }
+    }
+
     @Override
     public CreatedProductResponse add(CreateProductRequest request) {
-        productBusinessRules.checkIfProductNameAlreadyExists(request.getName());
         productBusinessRules.checkIfUnitPriceValid(request.getUnitPrice());
 
         Product product = new Product();
@@ -84,7 +141,10 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new RuntimeException("Kategori bulunamadı. ID: " + request.getCategoryId()));
         product.setCategory(category);
 
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = productBusinessRules.saveIfProductNameUnique(product);
+        productSearchIndex.index(toGetByIdProductResponse(savedProduct));
+        productNameFilter.add(savedProduct.getName());
+        entityTagRegistry.productChanged(savedProduct.getId(), savedProduct.getCreatedDate(), savedProduct.getUpdatedDate());
 
         CreatedProductResponse response = new CreatedProductResponse();
         response.setId(savedProduct.getId());
@@ -96,16 +156,69 @@ public class ProductServiceImpl implements ProductService {
         response.setCategoryId(savedProduct.getCategory().getId());
         response.setCategoryName(savedProduct.getCategory().getName());
         response.setCreatedDate(savedProduct.getCreatedDate());
+        response.setVersion(savedProduct.getVersion());
         return response;
     }
 
+    @Override
+    @Transactional
+    public List<CreatedProductResponse> addAll(List<CreateProductRequest> requests) {
+        productBusinessRules.checkIfBulkSizeValid(requests.size());
+        productBusinessRules.checkIfProductNamesAlreadyExist(requests.stream().map(CreateProductRequest::getName).toList());
+        requests.forEach(request -> productBusinessRules.checkIfUnitPriceValid(request.getUnitPrice()));
+
+        List<Integer> categoryIds = requests.stream().map(CreateProductRequest::getCategoryId).distinct().toList();
+        Map<Integer, Category> categoriesById = categoryRepository.findAllById(categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<Product> products = requests.stream().map(request -> {
+            Category category = categoriesById.get(request.getCategoryId());
+            if (category == null) {
+                throw new BusinessException("Kategori bulunamadı. ID: " + request.getCategoryId());
+            }
+
+            Product product = new Product();
+            product.setName(request.getName());
+            product.setDescription(request.getDescription());
+            product.setUnitPrice(request.getUnitPrice());
+            product.setUnitsInStock(request.getUnitsInStock());
+            product.setImageUrl(request.getImageUrl());
+            product.setCategory(category);
+            return product;
+        }).toList();
+
+        // Sequence ids are assigned on persist, so the inserts themselves are batched at flush time.
+        List<Product> savedProducts = productBusinessRules.saveAllIfProductNamesUnique(products);
+        savedProducts.forEach(savedProduct -> {
+            productSearchIndex.index(toGetByIdProductResponse(savedProduct));
+            productNameFilter.add(savedProduct.getName());
+            entityTagRegistry.productChanged(savedProduct.getId(), savedProduct.getCreatedDate(), savedProduct.getUpdatedDate());
+        });
+
+        return savedProducts.stream().map(savedProduct -> {
+            CreatedProductResponse response = new CreatedProductResponse();
+            response.setId(savedProduct.getId());
+            response.setName(savedProduct.getName());
+            response.setDescription(savedProduct.getDescription());
+            response.setUnitPrice(savedProduct.getUnitPrice());
+            response.setUnitsInStock(savedProduct.getUnitsInStock());
+            response.setImageUrl(savedProduct.getImageUrl());
+            response.setCategoryId(savedProduct.getCategory().getId());
+            response.setCategoryName(savedProduct.getCategory().getName());
+            response.setCreatedDate(savedProduct.getCreatedDate());
+            response.setVersion(savedProduct.getVersion());
+            return response;
+        }).toList();
+    }
+
     @Override
     public UpdatedProductResponse update(UpdateProductRequest request) {
-        productBusinessRules.checkIfProductExistsById(request.getId());
-        productBusinessRules.checkIfProductNameAlreadyExistsForUpdate(request.getId(), request.getName());
+        Product product = productBusinessRules.getProductIfExists(request.getId());
+        productBusinessRules.checkIfProductVersionMatches(product, request.getVersion());
         productBusinessRules.checkIfUnitPriceValid(request.getUnitPrice());
+        String previousName = product.getName();
+        int previousStock = product.getUnitsInStock();
 
-        Product product = productRepository.findById(request.getId()).orElseThrow();
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setUnitPrice(request.getUnitPrice());
@@ -116,7 +229,17 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new RuntimeException("Kategori bulunamadı. ID: " + request.getCategoryId()));
         product.setCategory(updateCategory);
 
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = productBusinessRules.saveIfProductNameUniqueForUpdate(product);
+        productSearchIndex.index(toGetByIdProductResponse(updatedProduct));
+        // Evicted before the tag moves (commit hooks run in order): a reader holding the new tag
+        // must not find the old body in either cache and store it under that tag.
+        TransactionHooks.afterCommit(() -> evictCachedProduct(updatedProduct.getId()));
+        entityTagRegistry.productChanged(updatedProduct.getId(), updatedProduct.getCreatedDate(), updatedProduct.getUpdatedDate());
+        stockLedger.stockChanged(updatedProduct.getId(), previousStock, updatedProduct.getUnitsInStock());
+        if (!updatedProduct.getName().equals(previousName)) {
+            productNameFilter.add(updatedProduct.getName());
+            productNameFilter.remove(previousName);
+        }
 
         UpdatedProductResponse response = new UpdatedProductResponse();
         response.setId(updatedProduct.getId());
@@ -128,19 +251,107 @@ public class ProductServiceImpl implements ProductService {
         response.setCategoryId(updatedProduct.getCategory().getId());
         response.setCategoryName(updatedProduct.getCategory().getName());
         response.setUpdatedDate(updatedProduct.getUpdatedDate());
+        response.setVersion(updatedProduct.getVersion());
         return response;
     }
 
     @Override
     public DeletedProductResponse delete(int id) {
-        productBusinessRules.checkIfProductExistsById(id);
-
-        Product product = productRepository.findById(id).orElseThrow();
-        productRepository.delete(product);
+        Product product = productBusinessRules.getProductIfExists(id);
+        // Soft delete: the row stays (and keeps its name taken) until the purge job removes it.
+        product.setActive(false);
+        product.setDeletedDate(LocalDateTime.now());
+        productRepository.save(product);
+        productSearchIndex.remove(id);
+        TransactionHooks.afterCommit(() -> evictCachedProduct(id));
+        entityTagRegistry.productRemoved(id);
+        stockLedger.productRemoved(id);
 
         DeletedProductResponse response = new DeletedProductResponse();
         response.setId(product.getId());
         response.setName(product.getName());
         return response;
     }
+
+    @Override
+    public RestoredProductResponse restore(int id) {
+        productBusinessRules.checkIfProductCanBeRestored(id);
+        productRepository.restore(id, LocalDateTime.now());
+
+        Product product = productBusinessRules.getProductIfExists(id);
+        productSearchIndex.index(toGetByIdProductResponse(product));
+        entityTagRegistry.productChanged(product.getId(), product.getCreatedDate(), product.getUpdatedDate());
+
+        RestoredProductResponse response = new RestoredProductResponse();
+        response.setId(product.getId());
+        response.setName(product.getName());
+        response.setVersion(product.getVersion());
+        return response;
+    }
+
+    @Override
+    public ReservedStockResponse reserveStock(int id, ReserveStockRequest request) {
+        boolean reserved;
+        if (stockLedger.tracks(id)) {
+            // Hot products are served from memory and their row does not change until the ledger's
+            // flush, which evicts the cached bodies and refreshes the ETag; evicting here would only
+            // make the next GET re-read and re-serialize an unchanged row.
+            reserved = stockLedger.reserve(id, request.getQuantity());
+        } else if (productRepository.reserveStock(id, request.getQuantity()) == 1) {
+            reserved = true;
+            evictCachedProduct(id);
+            entityTagRegistry.productStockChanged(id);
+        } else {
+            // Zero rows means either no such product or not enough stock; only the rare failure pays for the lookup.
+            productBusinessRules.checkIfProductExists(id);
+            reserved = false;
+        }
+
+        ReservedStockResponse response = new ReservedStockResponse();
+        response.setProductId(id);
+        response.setQuantity(request.getQuantity());
+        response.setReserved(reserved);
+        return response;
+    }
+
+    private void evictCachedProduct(int id) {
+        for (String cacheName : List.of(CacheConfig.PRODUCT_BY_ID_CACHE, CacheConfig.PRODUCT_JSON_CACHE)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(id);
+            }
+        }
+    }
+
+    private static String encodeCursor(int id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException exception) {
+            throw new BusinessException("Geçersiz sayfa imleci: " + cursor);
+        }
+    }
+
+    private GetByIdProductResponse toGetByIdProductResponse(Product product) {
+        GetByIdProductResponse response = new GetByIdProductResponse();
+        response.setId(product.getId());
+        response.setName(product.getName());
+        response.setDescription(product.getDescription());
+        response.setUnitPrice(product.getUnitPrice());
+        response.setUnitsInStock(product.getUnitsInStock());
+        response.setImageUrl(product.getImageUrl());
+        if (product.getCategory() != null) {
+            response.setCategoryId(product.getCategory().getId());
+            response.setCategoryName(product.getCategory().getName());
+        }
+        response.setCreatedDate(product.getCreatedDate());
+        response.setUpdatedDate(product.getUpdatedDate());
+        response.setActive(product.isActive());
+        response.setVersion(product.getVersion());
+        return response;
+    }
 }
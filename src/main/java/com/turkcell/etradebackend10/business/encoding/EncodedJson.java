@@ -0,0 +1,35 @@
+package com.turkcell.etradebackend10.business.encoding;
+
+/**
+ * A response body encoded once: the UTF-8 JSON, its gzip form when that is smaller, and the ETag
+ * the body was built under.
+ */
+public final class EncodedJson {
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+
+    public EncodedJson(byte[] json, byte[] gzip, String etag) {
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    public static EncodedJson of(byte[] json, String etag) {
+        return new EncodedJson(json, ResponseCompression.gzipIfSmaller(json), etag);
+    }
+
+    // The arrays are shared, not copied: callers only write them to the response.
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,74 @@
+package com.turkcell.etradebackend10.business.encoding;
+
+import com.turkcell.etradebackend10.config.CacheConfig;
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Encoded {@code GET /api/products/{id}} bodies, so hot products are not serialized again on every
+ * request. Entries live in the {@value CacheConfig#PRODUCT_JSON_CACHE} cache, are evicted wherever
+ * {@value CacheConfig#PRODUCT_BY_ID_CACHE} is, and are only returned while their ETag is still the
+ * current one, which covers {@code updatedDate}, stock and category changes even if an eviction is missed.
+ */
+@Component
+public class ProductJsonCache {
+
+    private final Cache cache;
+    private final JsonMapper jsonMapper;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter jsonBytesCounter;
+    private final Counter gzipBytesCounter;
+
+    public ProductJsonCache(CacheManager cacheManager, JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        this.cache = cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE);
+        this.jsonMapper = jsonMapper;
+        this.hitCounter = outcomeCounter(meterRegistry, "hit");
+        this.missCounter = outcomeCounter(meterRegistry, "miss");
+        this.jsonBytesCounter = bytesCounter(meterRegistry, "identity");
+        this.gzipBytesCounter = bytesCounter(meterRegistry, ResponseCompression.GZIP);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(MetricsConfig.PRODUCT_JSON_CACHE_METRIC)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter bytesCounter(MeterRegistry meterRegistry, String encoding) {
+        return Counter.builder(MetricsConfig.PRODUCT_JSON_CACHE_METRIC + ".bytes")
+                .description("Response bytes served from the product JSON cache")
+                .baseUnit("bytes")
+                .tag("encoding", encoding)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached body if it was built under {@code etag}, otherwise {@code null}.
+     */
+    public EncodedJson get(int id, String etag) {
+        EncodedJson cached = cache.get(id, EncodedJson.class);
+        if (cached == null || !cached.getEtag().equals(etag)) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return cached;
+    }
+
+    public EncodedJson put(int id, String etag, GetByIdProductResponse response) {
+        EncodedJson encoded = EncodedJson.of(jsonMapper.writeValueAsBytes(response), etag);
+        cache.put(id, encoded);
+        return encoded;
+    }
+
+    public void servedFromCache(byte[] body, boolean gzip) {
+        (gzip ? gzipBytesCounter : jsonBytesCounter).increment(body.length);
+    }
+}
@@ -0,0 +1,100 @@
+package com.turkcell.etradebackend10.business.encoding;
+
+import org.springframework.http.ETag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression helpers for bodies that are encoded once and served many times.
+ */
+public final class ResponseCompression {
+
+    public static final String GZIP = "gzip";
+
+    private static final String GZIP_TAG_SUFFIX = "-gz";
+
+    private ResponseCompression() {
+    }
+
+    public static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Compresses a body that will be served many times, or returns {@code null} when gzip would not
+     * make it smaller; tiny bodies grow by the gzip header.
+     */
+    public static byte[] gzipIfSmaller(byte[] body) {
+        byte[] compressed = gzip(body);
+        return compressed.length < body.length ? compressed : null;
+    }
+
+    /**
+     * Tells whether an {@code Accept-Encoding} header allows gzip, honouring {@code q=0} and {@code *}.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals(GZIP) || coding.equals("*")) {
+                return !isZeroQuality(tokens);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tag of the gzip form of a body tagged {@code etag}. A strong validator has to differ between
+     * content codings, so the compressed bytes cannot go out under the identity tag.
+     */
+    public static String gzipTag(String etag) {
+        return etag + GZIP_TAG_SUFFIX;
+    }
+
+    /**
+     * Returns the identity or gzip tag of {@code etag} named by an {@code If-None-Match} header, or
+     * {@code null} if it names neither; a client may hold either coding of the same body.
+     */
+    public static String matchedTag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return null;
+        }
+        String gzipTag = gzipTag(etag);
+        for (ETag candidate : ETag.parse(ifNoneMatch)) {
+            if (candidate.isWildcard() || candidate.tag().equals(etag)) {
+                return etag;
+            }
+            if (candidate.tag().equals(gzipTag)) {
+                return gzipTag;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isZeroQuality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException exception) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package com.turkcell.etradebackend10.business.etag;
+
+import com.turkcell.etradebackend10.business.transaction.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current ETag of each product and of the category list, kept in memory so conditional GETs can be
+ * answered with 304 before the service or database is touched. A product tag is built from its id and
+ * {@code updatedDate} (or {@code createdDate} before the first update) plus the category version,
+ * because product responses carry the category name; stock reservations update the row without a new
+ * timestamp and swap in a fresh counter value instead. The category list has no single timestamp, so it
+ * uses a counter bumped on every category write; the counter is prefixed with the startup time so tags
+ * from an earlier run never match. Changes made inside a transaction are applied only after it commits.
+ */
+@Component
+public class EntityTagRegistry {
+
+    private final String startup = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Integer, String> productVersions = new ConcurrentHashMap<>();
+    private final AtomicLong categoriesVersion = new AtomicLong();
+    private final AtomicLong stockChanges = new AtomicLong();
+
+    public void productChanged(int id, LocalDateTime createdDate, LocalDateTime updatedDate) {
+        String version = version(updatedDate != null ? updatedDate : createdDate);
+        TransactionHooks.afterCommit(() -> productVersions.put(id, version));
+    }
+
+    // Stock updates bypass the entity, so there is no new timestamp to derive from; any unused token will do.
+    public void productStockChanged(int id) {
+        String version = "s" + Long.toString(stockChanges.incrementAndGet(), 36);
+        TransactionHooks.afterCommit(() -> productVersions.put(id, version));
+    }
+
+    public void productRemoved(int id) {
+        TransactionHooks.afterCommit(() -> productVersions.remove(id));
+    }
+
+    public void categoriesChanged() {
+        TransactionHooks.afterCommit(categoriesVersion::incrementAndGet);
+    }
+
+    public void rebuildProducts(Map<Integer, LocalDateTime> versionDates) {
+        productVersions.clear();
+        versionDates.forEach((id, date) -> productVersions.put(id, version(date)));
+    }
+
+    /**
+     * Returns the current tag of the product, or {@code null} if the product is unknown and the
+     * request has to go through to the service.
+     */
+    public String productTag(int id) {
+        String version = productVersions.get(id);
+        return version == null ? null : productTag(id, version);
+    }
+
+    public String productTag(int id, LocalDateTime createdDate, LocalDateTime updatedDate) {
+        return productTag(id, version(updatedDate != null ? updatedDate : createdDate));
+    }
+
+    public String categoriesTag() {
+        return "c-" + startup + "-" + categoriesVersion.get();
+    }
+
+    private String productTag(int id, String version) {
+        return "p" + id + "-" + version + "-" + startup + "." + categoriesVersion.get();
+    }
+
+    private static String version(LocalDateTime date) {
+        if (date == null) {
+            return "0";
+        }
+        long micros = date.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + date.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+}
@@ -0,0 +1,35 @@
+package com.turkcell.etradebackend10.business.etag;
+
+import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the version of every product in {@link EntityTagRegistry} on startup; after that the
+ * services keep it up to date on every write. The registry is filled while the context is refreshed,
+ * before the web server accepts requests, so no write can commit between the export and the rebuild
+ * and have its fresh tag replaced with the exported one.
+ */
+@Component
+public class EntityTagRegistryLoader implements SmartInitializingSingleton {
+
+    private final ProductService productService;
+    private final EntityTagRegistry entityTagRegistry;
+
+    public EntityTagRegistryLoader(ProductService productService, EntityTagRegistry entityTagRegistry) {
+        this.productService = productService;
+        this.entityTagRegistry = entityTagRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Integer, LocalDateTime> versionDates = new HashMap<>();
+        productService.exportAll(product -> versionDates.put(product.getId(),
+                product.getUpdatedDate() != null ? product.getUpdatedDate() : product.getCreatedDate()));
+        entityTagRegistry.rebuildProducts(versionDates);
+    }
+}
@@ -1,10 +1,15 @@
 package com.turkcell.etradebackend10.business.exceptions;
 
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -13,8 +18,15 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<BusinessErrorResponse> handleBusinessException(BusinessException exception) {
+        countError("business");
         BusinessErrorResponse response = new BusinessErrorResponse(
                 HttpStatus.BAD_REQUEST.value(),
                 exception.getMessage(),
@@ -23,8 +35,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Both the explicit version check and a lost @Version race end up here.
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<BusinessErrorResponse> handleOptimisticLockException(RuntimeException exception) {
+        countError("conflict");
+        BusinessErrorResponse response = new BusinessErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Kayıt siz düzenlerken başka bir kullanıcı tarafından değiştirildi. Güncel halini yükleyip tekrar deneyin.",
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationException(MethodArgumentNotValidException exception) {
+        countError("validation");
         Map<String, String> errors = new HashMap<>();
         exception.getBindingResult().getFieldErrors().forEach(fieldError ->
                 errors.put(fieldError.getField(), fieldError.getDefaultMessage())
@@ -38,4 +63,30 @@ public class GlobalExceptionHandler {
         );
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ValidationErrorResponse> handleMethodValidationException(HandlerMethodValidationException exception) {
+        countError("validation");
+        Map<String, String> errors = new HashMap<>();
+        exception.getBeanResults().forEach(parameterErrors -> {
+            String prefix = parameterErrors.getContainerIndex() != null
+                    ? "[" + parameterErrors.getContainerIndex() + "]."
+                    : "";
+            parameterErrors.getFieldErrors().forEach(fieldError ->
+                    errors.put(prefix + fieldError.getField(), fieldError.getDefaultMessage())
+            );
+        });
+
+        ValidationErrorResponse response = new ValidationErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validasyon hatası",
+                errors,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    private void countError(String type) {
+        meterRegistry.counter(MetricsConfig.ERRORS_METRIC, "type", type).increment();
+    }
 }
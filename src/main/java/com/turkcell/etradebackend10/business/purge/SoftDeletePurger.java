@@ -0,0 +1,95 @@
+package com.turkcell.etradebackend10.business.purge;
+
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Hard-deletes rows that have been soft-deleted for longer than the retention period. Each batch is a
+ * single {@code DELETE ... WHERE id IN (SELECT ... LIMIT n)} in its own transaction, so locks are held
+ * for at most {@code batch-size} rows at a time; batches repeat until one comes back short. Products go
+ * first, so categories whose last (deleted) products were just purged can follow in the same run.
+ * Runs every {@code purge-interval} unless {@code etrade.soft-delete.purge-enabled} is off.
+ */
+@Component
+@ConditionalOnProperty(name = "etrade.soft-delete.purge-enabled", havingValue = "true", matchIfMissing = true)
+public class SoftDeletePurger {
+
+    private static final Logger log = LoggerFactory.getLogger(SoftDeletePurger.class);
+
+    private final Duration retention;
+    private final int batchSize;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final Counter productCounter;
+    private final Counter categoryCounter;
+    private final Counter failedCounter;
+
+    public SoftDeletePurger(@Value("${etrade.soft-delete.retention:30d}") Duration retention,
+                            @Value("${etrade.soft-delete.purge-batch-size:500}") int batchSize,
+                            ProductRepository productRepository,
+                            CategoryRepository categoryRepository,
+                            MeterRegistry meterRegistry) {
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productCounter = purgedCounter(meterRegistry, "product");
+        this.categoryCounter = purgedCounter(meterRegistry, "category");
+        this.failedCounter = Counter.builder(MetricsConfig.PURGE_METRIC + ".failed")
+                .description("Purge runs that ended with an error")
+                .register(meterRegistry);
+    }
+
+    private static Counter purgedCounter(MeterRegistry meterRegistry, String entity) {
+        return Counter.builder(MetricsConfig.PURGE_METRIC)
+                .description("Soft-deleted rows removed for good")
+                .tag("entity", entity)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Purges everything deleted before {@code now - retention} and returns the number of rows removed.
+     */
+    public int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int products = purgeInBatches(() -> productRepository.purgeDeletedBefore(cutoff, batchSize), productCounter);
+        int categories = purgeInBatches(() -> categoryRepository.purgeDeletedBefore(cutoff, batchSize), categoryCounter);
+        return products + categories;
+    }
+
+    private int purgeInBatches(IntSupplier batch, Counter counter) {
+        int total = 0;
+        int purged;
+        do {
+            purged = batch.getAsInt();
+            counter.increment(purged);
+            total += purged;
+        } while (purged >= batchSize);
+        return total;
+    }
+
+    // A failed run keeps the rows it did not reach for the next one; the cause goes to the log.
+    @Scheduled(initialDelayString = "${etrade.soft-delete.purge-interval:1h}",
+            fixedDelayString = "${etrade.soft-delete.purge-interval:1h}")
+    public void runScheduled() {
+        try {
+            purge();
+        } catch (RuntimeException exception) {
+            failedCounter.increment();
+            log.warn("Soft-delete purge failed, retrying in the next run", exception);
+        }
+    }
+}
@@ -2,32 +2,68 @@ package com.turkcell.etradebackend10.business.rules;
 
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
 import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 @Service
 public class CategoryBusinessRules {
 
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
 
-    public CategoryBusinessRules(CategoryRepository categoryRepository) {
+    public CategoryBusinessRules(CategoryRepository categoryRepository, ProductRepository productRepository) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
     }
 
-    public void checkIfCategoryExistsById(int id) {
-        if (!categoryRepository.existsById(id)) {
-            throw new BusinessException("Kategori bulunamadı. ID: " + id);
+    public Category getCategoryIfExists(int id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new BusinessException("Kategori bulunamadı. ID: " + id));
+    }
+
+    // Active products must not point at a deleted category; they are deleted or moved first.
+    public void checkIfCategoryHasNoActiveProducts(int id) {
+        if (productRepository.existsByCategoryId(id)) {
+            throw new BusinessException("Kategoriye ait aktif ürünler varken kategori silinemez. ID: " + id);
+        }
+    }
+
+    public void checkIfCategoryCanBeRestored(int id) {
+        if (categoryRepository.countDeletedById(id) == 0) {
+            throw new BusinessException("Silinmiş kategori bulunamadı. ID: " + id);
+        }
+    }
+
+    // The client sends the version it read; a different one means someone else saved in between.
+    public void checkIfCategoryVersionMatches(Category category, long version) {
+        if (category.getVersion() != version) {
+            throw new ObjectOptimisticLockingFailureException(Category.class, category.getId());
         }
     }
 
-    public void checkIfCategoryNameAlreadyExists(String name) {
-        if (categoryRepository.existsByName(name)) {
-            throw new BusinessException("Bu kategori adı zaten mevcut: " + name);
+    // Name uniqueness is enforced by uk_categories_name; flushing here turns a violation into a business error.
+    public Category saveIfCategoryNameUnique(Category category) {
+        try {
+            return categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueConstraintViolation.matches(exception, Category.NAME_UNIQUE_CONSTRAINT)) {
+                throw new BusinessException("Bu kategori adı zaten mevcut: " + category.getName());
+            }
+            throw exception;
         }
     }
 
-    public void checkIfCategoryNameAlreadyExistsForUpdate(int id, String name) {
-        if (categoryRepository.existsByNameAndIdNot(name, id)) {
-            throw new BusinessException("Bu kategori adı zaten başka bir kategoriye ait: " + name);
+    public Category saveIfCategoryNameUniqueForUpdate(Category category) {
+        try {
+            return categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueConstraintViolation.matches(exception, Category.NAME_UNIQUE_CONSTRAINT)) {
+                throw new BusinessException("Bu kategori adı zaten başka bir kategoriye ait: " + category.getName());
+            }
+            throw exception;
         }
     }
 }
@@ -1,33 +1,122 @@
 package com.turkcell.etradebackend10.business.rules;
 
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
+import com.turkcell.etradebackend10.business.search.TurkishTextAnalyzer;
 import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 @Service
 public class ProductBusinessRules {
 
+    public static final int MAX_PAGE_LIMIT = 100;
+    public static final int MAX_BULK_SIZE = 10_000;
+    public static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "unitPrice", "unitsInStock", "createdDate");
+
+    private static final int NAME_LOOKUP_CHUNK_SIZE = 1_000;
+
     private final ProductRepository productRepository;
+    private final ProductNameFilter productNameFilter;
 
-    public ProductBusinessRules(ProductRepository productRepository) {
+    public ProductBusinessRules(ProductRepository productRepository, ProductNameFilter productNameFilter) {
         this.productRepository = productRepository;
+        this.productNameFilter = productNameFilter;
     }
 
-    public void checkIfProductExistsById(int id) {
+    public Product getProductIfExists(int id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new BusinessException("Ürün bulunamadı. ID: " + id));
+    }
+
+    public void checkIfProductExists(int id) {
         if (!productRepository.existsById(id)) {
             throw new BusinessException("Ürün bulunamadı. ID: " + id);
         }
     }
 
-    public void checkIfProductNameAlreadyExists(String name) {
-        if (productRepository.existsByName(name)) {
-            throw new BusinessException("Bu ürün adı zaten mevcut: " + name);
+    // A product can only come back under an active category, otherwise it would point at a filtered row.
+    public void checkIfProductCanBeRestored(int id) {
+        if (productRepository.countDeletedById(id) == 0) {
+            throw new BusinessException("Silinmiş ürün bulunamadı. ID: " + id);
+        }
+        if (productRepository.countDeletedCategoryOf(id) > 0) {
+            throw new BusinessException("Ürünün kategorisi silinmiş, önce kategori geri alınmalıdır. ID: " + id);
+        }
+    }
+
+    // The client sends the version it read; a different one means someone else saved in between.
+    public void checkIfProductVersionMatches(Product product, long version) {
+        if (product.getVersion() != version) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+        }
+    }
+
+    // Name uniqueness is enforced by uk_products_name; flushing here turns a violation into a business error.
+    public Product saveIfProductNameUnique(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueConstraintViolation.matches(exception, Product.NAME_UNIQUE_CONSTRAINT)) {
+                throw new BusinessException("Bu ürün adı zaten mevcut: " + product.getName());
+            }
+            throw exception;
         }
     }
 
-    public void checkIfProductNameAlreadyExistsForUpdate(int id, String name) {
-        if (productRepository.existsByNameAndIdNot(name, id)) {
-            throw new BusinessException("Bu ürün adı zaten başka bir ürüne ait: " + name);
+    public Product saveIfProductNameUniqueForUpdate(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueConstraintViolation.matches(exception, Product.NAME_UNIQUE_CONSTRAINT)) {
+                throw new BusinessException("Bu ürün adı zaten başka bir ürüne ait: " + product.getName());
+            }
+            throw exception;
+        }
+    }
+
+    public List<Product> saveAllIfProductNamesUnique(List<Product> products) {
+        try {
+            return productRepository.saveAllAndFlush(products);
+        } catch (DataIntegrityViolationException exception) {
+            if (UniqueConstraintViolation.matches(exception, Product.NAME_UNIQUE_CONSTRAINT)) {
+                throw new BusinessException("Toplu istekteki ürün adlarından en az biri başka bir işlem tarafından eklendi.");
+            }
+            throw exception;
+        }
+    }
+
+    public void checkIfBulkSizeValid(int size) {
+        if (size < 1 || size > MAX_BULK_SIZE) {
+            throw new BusinessException("Toplu işlemde ürün sayısı 1 ile " + MAX_BULK_SIZE + " arasında olmalıdır.");
+        }
+    }
+
+    public void checkIfProductNamesAlreadyExist(List<String> names) {
+        Set<String> uniqueNames = new HashSet<>();
+        for (String name : names) {
+            if (!uniqueNames.add(name)) {
+                throw new BusinessException("Toplu istekte aynı ürün adı birden fazla kez geçiyor: " + name);
+            }
+        }
+
+        // Names the filter has never seen cannot exist, so only the possible hits go to the database.
+        List<String> candidates = productNameFilter.possiblyExisting(names);
+        List<String> existingNames = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i += NAME_LOOKUP_CHUNK_SIZE) {
+            existingNames.addAll(productRepository.findExistingNames(
+                    candidates.subList(i, Math.min(i + NAME_LOOKUP_CHUNK_SIZE, candidates.size()))));
+        }
+        productNameFilter.recordFalsePositives(candidates.size() - existingNames.size());
+        if (!existingNames.isEmpty()) {
+            throw new BusinessException("Bu ürün adları zaten mevcut: " + String.join(", ", existingNames));
         }
     }
 
@@ -36,4 +125,52 @@ public class ProductBusinessRules {
             throw new BusinessException("Birim fiyat 0'dan küçük olamaz.");
         }
     }
+
+    public void checkIfPriceRangeValid(Double minPrice, Double maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new BusinessException("Minimum fiyat maksimum fiyattan büyük olamaz.");
+        }
+    }
+
+    public Sort getSortIfValid(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.unsorted();
+        }
+
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (parts.length > 2 || !SORTABLE_FIELDS.contains(field)) {
+            throw new BusinessException("Geçersiz sıralama: " + sort);
+        }
+        if (parts.length == 1) {
+            return Sort.by(field);
+        }
+        return Sort.by(Sort.Direction.fromOptionalString(parts[1].trim())
+                .orElseThrow(() -> new BusinessException("Geçersiz sıralama: " + sort)), field);
+    }
+
+    public void checkIfPageLimitValid(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new BusinessException("Sayfa boyutu 1 ile " + MAX_PAGE_LIMIT + " arasında olmalıdır.");
+        }
+    }
+
+    // The cursor is a product id, so pages can only be walked in id order.
+    public void checkIfSortNotRequestedForPaging(String sort) {
+        if (sort != null && !sort.isBlank()) {
+            throw new BusinessException("Sayfalı listelemede sıralama kullanılamaz; ürünler ID sırasıyla döner.");
+        }
+    }
+
+    public void checkIfPageNumberValid(int page) {
+        if (page < 0) {
+            throw new BusinessException("Sayfa numarası 0'dan küçük olamaz.");
+        }
+    }
+
+    public void checkIfSearchQueryValid(String query) {
+        if (TurkishTextAnalyzer.tokenize(query).isEmpty()) {
+            throw new BusinessException("Arama ifadesi en az bir harf veya rakam içermelidir.");
+        }
+    }
 }
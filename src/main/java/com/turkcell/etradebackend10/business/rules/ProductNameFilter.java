@@ -0,0 +1,197 @@
+package com.turkcell.etradebackend10.business.rules;
+
+import com.turkcell.etradebackend10.business.transaction.TransactionHooks;
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counting Bloom filter over existing product names. A name it reports as absent is certainly not in
+ * the database, so bulk uniqueness checks only query the names it reports as possibly present.
+ * Counters instead of bits let renames and deletes take names out again. The filter is sized on
+ * startup for twice the current name count (at least {@value #MIN_CAPACITY}) at a
+ * {@value #FALSE_POSITIVE_RATE} false-positive rate; it only saves queries, {@code uk_products_name}
+ * still guarantees uniqueness.
+ */
+@Component
+public class ProductNameFilter {
+
+    static final int MIN_CAPACITY = 100_000;
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final int SATURATED = 0xFF;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Counter avoidedCounter;
+    private final Counter checkedCounter;
+    private final Counter falsePositiveCounter;
+
+    private byte[] counters;
+    private int hashCount;
+    private int size;
+
+    public ProductNameFilter(MeterRegistry meterRegistry) {
+        this.avoidedCounter = outcomeCounter(meterRegistry, "avoided");
+        this.checkedCounter = outcomeCounter(meterRegistry, "checked");
+        this.falsePositiveCounter = outcomeCounter(meterRegistry, "false_positive");
+        Gauge.builder(MetricsConfig.NAME_FILTER_METRIC + ".expected.fpp", this, ProductNameFilter::expectedFalsePositiveRate)
+                .description("Current false-positive probability of the product name filter")
+                .register(meterRegistry);
+        allocate(MIN_CAPACITY);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(MetricsConfig.NAME_FILTER_METRIC)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public void rebuild(Collection<String> names) {
+        lock.writeLock().lock();
+        try {
+            allocate(Math.max(MIN_CAPACITY, names.size() * 2));
+            names.forEach(this::increment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adding early is safe: until the transaction commits the name can only cause a false positive.
+    public void add(String name) {
+        lock.writeLock().lock();
+        try {
+            increment(name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removing before commit could hide a name that is still there, so it waits for the commit.
+    public void remove(String name) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                decrement(name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns the names that may already exist and counts the rest as database lookups avoided.
+     */
+    public List<String> possiblyExisting(List<String> names) {
+        List<String> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String name : names) {
+                if (mightContain(name)) {
+                    candidates.add(name);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        avoidedCounter.increment(names.size() - candidates.size());
+        checkedCounter.increment(candidates.size());
+        return candidates;
+    }
+
+    public void recordFalsePositives(int count) {
+        falsePositiveCounter.increment(count);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    double expectedFalsePositiveRate() {
+        lock.readLock().lock();
+        try {
+            return Math.pow(1 - Math.exp(-(double) hashCount * size / counters.length), hashCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void allocate(int capacity) {
+        int length = (int) Math.ceil(-capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2)));
+        counters = new byte[length];
+        hashCount = Math.max(1, (int) Math.round((double) length / capacity * Math.log(2)));
+        size = 0;
+    }
+
+    private boolean mightContain(String name) {
+        long hash = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            if (counters[index(hash, i)] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void increment(String name) {
+        long hash = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash, i);
+            int counter = counters[index] & SATURATED;
+            if (counter < SATURATED) {
+                counters[index] = (byte) (counter + 1);
+            }
+        }
+        size++;
+    }
+
+    private void decrement(String name) {
+        if (!mightContain(name)) {
+            return;
+        }
+        long hash = hash(name);
+        for (int i = 0; i < hashCount; i++) {
+            int index = index(hash, i);
+            int counter = counters[index] & SATURATED;
+            // A saturated counter no longer knows its real count, so it stays set.
+            if (counter < SATURATED) {
+                counters[index] = (byte) (counter - 1);
+            }
+        }
+        size--;
+    }
+
+    // Kirsch-Mitzenmacher: the i-th index comes from two halves of one 64-bit hash.
+    private int index(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return Math.floorMod(combined, counters.length);
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so both halves are well spread.
+    private static long hash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : name.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,27 @@
+package com.turkcell.etradebackend10.business.rules;
+
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills {@link ProductNameFilter} with every product name on startup; after that the service keeps it
+ * up to date on every add, rename and delete. The filter is built before the web server accepts
+ * requests, so a name added between the export and the rebuild is never dropped from it.
+ */
+@Component
+public class ProductNameFilterLoader implements SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+    private final ProductNameFilter productNameFilter;
+
+    public ProductNameFilterLoader(ProductRepository productRepository, ProductNameFilter productNameFilter) {
+        this.productRepository = productRepository;
+        this.productNameFilter = productNameFilter;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        productNameFilter.rebuild(productRepository.findAllNames());
+    }
+}
@@ -0,0 +1,26 @@
+package com.turkcell.etradebackend10.business.rules;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells whether a failed write broke a particular unique constraint. Databases report constraint
+ * names in their own case and H2 wraps them with schema and index names, so the match is
+ * case-insensitive and on a substring.
+ */
+public final class UniqueConstraintViolation {
+
+    private UniqueConstraintViolation() {
+    }
+
+    public static boolean matches(DataIntegrityViolationException exception, String constraintName) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraintName);
+            }
+        }
+        return false;
+    }
+}
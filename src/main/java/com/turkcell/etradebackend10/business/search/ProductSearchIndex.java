@@ -0,0 +1,208 @@
+package com.turkcell.etradebackend10.business.search;
+
+import com.turkcell.etradebackend10.business.transaction.TransactionHooks;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.SearchProductsPageResponse;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.SearchedProductResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and description. Each term maps to the products that
+ * contain it and a weight (name hits count {@value #NAME_BOOST} times). Every query term must match;
+ * the last one also matches as a prefix so partially typed words find results. Changes made inside a
+ * transaction are applied only after it commits.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final int NAME_BOOST = 3;
+    private static final double SATURATION = 1.2;
+
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(GetByIdProductResponse product) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeEntry(product.getId());
+                addEntry(product);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(int id) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeEntry(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void renameCategory(int categoryId, String categoryName) {
+        TransactionHooks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                entries.replaceAll((id, entry) -> entry.categoryId() == categoryId
+                        ? new Entry(entry.id(), entry.name(), entry.unitPrice(), entry.imageUrl(), categoryId, categoryName, entry.terms())
+                        : entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void rebuild(List<GetByIdProductResponse> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries.clear();
+            products.forEach(this::addEntry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchProductsPageResponse search(String query, int page, int size) {
+        List<String> terms = TurkishTextAnalyzer.tokenize(query).stream().distinct().toList();
+
+        lock.readLock().lock();
+        try {
+            // Start from the rarest term so later terms only have to be looked up for the remaining candidates.
+            List<Collection<Map<Integer, Integer>>> expansions = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                expansions.add(expand(terms.get(i), i == terms.size() - 1));
+            }
+            expansions.sort(Comparator.comparingInt(ProductSearchIndex::documentCount));
+
+            Map<Integer, Double> scores = expansions.isEmpty() ? new HashMap<>() : scan(expansions.get(0));
+            for (int i = 1; i < expansions.size() && !scores.isEmpty(); i++) {
+                Collection<Map<Integer, Integer>> postingLists = expansions.get(i);
+                scores.entrySet().removeIf(match -> {
+                    double score = probe(postingLists, match.getKey());
+                    match.setValue(match.getValue() + score);
+                    return score == 0;
+                });
+            }
+
+            List<Map.Entry<Integer, Double>> ranked = top(scores, (long) page * size + size);
+            int from = (int) Math.min((long) page * size, ranked.size());
+            List<SearchedProductResponse> items = ranked.subList(from, ranked.size()).stream()
+                    .map(match -> toResponse(entries.get(match.getKey()), match.getValue()))
+                    .toList();
+            return new SearchProductsPageResponse(items, page, size, scores.size(), (long) page * size + size < scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Map<Integer, Integer>> expand(String term, boolean prefix) {
+        if (prefix) {
+            return postings.subMap(term, true, term + Character.MAX_VALUE, false).values();
+        }
+        Map<Integer, Integer> documents = postings.get(term);
+        return documents == null ? List.of() : List.of(documents);
+    }
+
+    private static int documentCount(Collection<Map<Integer, Integer>> postingLists) {
+        int count = 0;
+        for (Map<Integer, Integer> documents : postingLists) {
+            count += documents.size();
+        }
+        return count;
+    }
+
+    // A prefix can expand to several terms in the same product; its best expansion counts.
+    private Map<Integer, Double> scan(Collection<Map<Integer, Integer>> postingLists) {
+        Map<Integer, Double> scores = new HashMap<>();
+        for (Map<Integer, Integer> documents : postingLists) {
+            double idf = idf(documents);
+            documents.forEach((id, weight) -> scores.merge(id, idf * weight / (weight + SATURATION), Math::max));
+        }
+        return scores;
+    }
+
+    private double probe(Collection<Map<Integer, Integer>> postingLists, int id) {
+        double best = 0;
+        for (Map<Integer, Integer> documents : postingLists) {
+            Integer weight = documents.get(id);
+            if (weight != null) {
+                best = Math.max(best, idf(documents) * weight / (weight + SATURATION));
+            }
+        }
+        return best;
+    }
+
+    private double idf(Map<Integer, Integer> documents) {
+        return Math.log(1 + (double) entries.size() / documents.size());
+    }
+
+    private static List<Map.Entry<Integer, Double>> top(Map<Integer, Double> scores, long limit) {
+        Comparator<Map.Entry<Integer, Double>> ranking = Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Integer, Double> match : scores.entrySet()) {
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (ranking.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        return ranked;
+    }
+
+    private void addEntry(GetByIdProductResponse product) {
+        Map<String, Integer> weights = new HashMap<>();
+        TurkishTextAnalyzer.tokenize(product.getName()).forEach(term -> weights.merge(term, NAME_BOOST, Integer::sum));
+        TurkishTextAnalyzer.tokenize(product.getDescription()).forEach(term -> weights.merge(term, 1, Integer::sum));
+
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(product.getId(), weight));
+        entries.put(product.getId(), new Entry(product.getId(), product.getName(), product.getUnitPrice(), product.getImageUrl(),
+                product.getCategoryId(), product.getCategoryName(), weights.keySet()));
+    }
+
+    private void removeEntry(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String term : entry.terms()) {
+            Map<Integer, Integer> documents = postings.get(term);
+            documents.remove(id);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static SearchedProductResponse toResponse(Entry entry, double score) {
+        return new SearchedProductResponse(entry.id(), entry.name(), entry.unitPrice(), entry.imageUrl(),
+                entry.categoryId(), entry.categoryName(), score);
+    }
+
+    private record Entry(int id, String name, double unitPrice, String imageUrl, int categoryId, String categoryName,
+                         Set<String> terms) {
+    }
+}
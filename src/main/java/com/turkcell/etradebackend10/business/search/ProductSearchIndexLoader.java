@@ -0,0 +1,34 @@
+package com.turkcell.etradebackend10.business.search;
+
+import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills {@link ProductSearchIndex} from the database on startup; after that the service keeps it
+ * up to date on every add, update and delete. The index is built while the context is refreshed,
+ * before the web server accepts requests, so no product written between the export and the rebuild
+ * is dropped or left with stale terms.
+ */
+@Component
+public class ProductSearchIndexLoader implements SmartInitializingSingleton {
+
+    private final ProductService productService;
+    private final ProductSearchIndex productSearchIndex;
+
+    public ProductSearchIndexLoader(ProductService productService, ProductSearchIndex productSearchIndex) {
+        this.productService = productService;
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<GetByIdProductResponse> products = new ArrayList<>();
+        productService.exportAll(products::add);
+        productSearchIndex.rebuild(products);
+    }
+}
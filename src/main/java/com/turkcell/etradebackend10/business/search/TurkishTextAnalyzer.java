@@ -0,0 +1,55 @@
+package com.turkcell.etradebackend10.business.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into search terms. Text is lower-cased with Turkish rules (I → ı, İ → i) and then
+ * folded to ASCII, so "IŞIK", "ışık" and "isik" all produce the same term.
+ */
+public final class TurkishTextAnalyzer {
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private TurkishTextAnalyzer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String lowerCase = text.toLowerCase(TURKISH);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = lowerCase.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                term.append(fold(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && !term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return terms;
+    }
+
+    private static char fold(char c) {
+        return switch (c) {
+            case 'ç' -> 'c';
+            case 'ğ' -> 'g';
+            case 'ı' -> 'i';
+            case 'ö' -> 'o';
+            case 'ş' -> 's';
+            case 'ü' -> 'u';
+            case 'â' -> 'a';
+            case 'î' -> 'i';
+            case 'û' -> 'u';
+            default -> c;
+        };
+    }
+}
@@ -0,0 +1,481 @@
+package com.turkcell.etradebackend10.business.stock;
+
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
+import com.turkcell.etradebackend10.business.transaction.TransactionHooks;
+import com.turkcell.etradebackend10.config.CacheConfig;
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.dataAccess.abstracts.StockLedgerCheckpointRepository;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import com.turkcell.etradebackend10.entities.concretes.StockLedgerCheckpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory stock for a configured set of hot products. Reservations on those products are
+ * a compare-and-set on the available count and never touch the database; the reserved quantities
+ * collect in striped {@link LongAdder}s and are written to {@code products} in one transaction every
+ * flush interval. Every reservation is appended to a local journal before it is acknowledged. A flush
+ * appends its quantities under a new sequence number before it commits and stores that number in
+ * {@code stock_ledger_checkpoints} in the same transaction, so on startup replay subtracts exactly the
+ * flushes that reached the database and applies the rest. After each flush the journal is rewritten
+ * to hold only the quantities still pending, which keeps it as small as the unflushed reservations.
+ * Recovery survives a process crash at any point of a flush. With {@code sync-journal} off (the
+ * default) it does not survive losing the operating system's page cache; turning it on makes every
+ * reservation a synchronous disk write, which costs more than the row update the ledger replaces.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private static final char RESERVED = 'R';
+    private static final char FLUSHED = 'F';
+
+    private final boolean enabled;
+    private final List<Integer> productIds;
+    private final Path journalPath;
+    private final Path compactedJournalPath;
+    private final boolean syncJournal;
+    private final ProductRepository productRepository;
+    private final StockLedgerCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final EntityTagRegistry entityTagRegistry;
+    private final Counter reservedCounter;
+    private final Counter rejectedCounter;
+    private final Counter flushFailedCounter;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    // Reservations append under the read lock, compaction swaps the journal under the write lock.
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+    // Start, stop and flush run queries; a lock rather than synchronized keeps a virtual thread from pinning its carrier.
+    private final Lock lifecycleLock = new ReentrantLock();
+    private volatile boolean active;
+    private FileChannel journal;
+    private long flushSequence;
+    private boolean compactionPending;
+
+    public StockLedger(@Value("${etrade.stock-ledger.enabled:false}") boolean enabled,
+                       @Value("${etrade.stock-ledger.products:}") List<Integer> productIds,
+                       @Value("${etrade.stock-ledger.journal:./data/stock-ledger.journal}") Path journalPath,
+                       @Value("${etrade.stock-ledger.sync-journal:false}") boolean syncJournal,
+                       ProductRepository productRepository,
+                       StockLedgerCheckpointRepository checkpointRepository,
+                       PlatformTransactionManager transactionManager,
+                       CacheManager cacheManager,
+                       EntityTagRegistry entityTagRegistry,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.productIds = List.copyOf(productIds);
+        this.journalPath = journalPath;
+        this.compactedJournalPath = journalPath.resolveSibling(journalPath.getFileName() + ".compact");
+        this.syncJournal = syncJournal;
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.entityTagRegistry = entityTagRegistry;
+        this.reservedCounter = outcomeCounter(meterRegistry, "reserved");
+        this.rejectedCounter = outcomeCounter(meterRegistry, "rejected");
+        this.flushFailedCounter = outcomeCounter(meterRegistry, "flush_failed");
+        Gauge.builder(MetricsConfig.STOCK_LEDGER_METRIC + ".pending", this, StockLedger::pending)
+                .description("Reserved units not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(MetricsConfig.STOCK_LEDGER_METRIC)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays the journal into the database and loads the stock of the hot products. Does nothing
+     * unless the ledger is enabled. Must run before any request can reserve stock: a reservation that
+     * goes to the database after the stock is loaded is never subtracted from the in-memory count.
+     */
+    public void start() {
+        lifecycleLock.lock();
+        try {
+            if (!enabled || active) {
+                return;
+            }
+            journal = openChannel(journalPath, StandardOpenOption.CREATE);
+            recover();
+            for (Product product : productRepository.findAllById(productIds)) {
+                entries.put(product.getId(), new Entry(product.getUnitsInStock()));
+            }
+            active = true;
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        lifecycleLock.lock();
+        try {
+            if (!active) {
+                return;
+            }
+            active = false;
+            flush();
+            closeJournal();
+            entries.clear();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${etrade.stock-ledger.flush-interval:200ms}",
+            fixedDelayString = "${etrade.stock-ledger.flush-interval:200ms}")
+    public void scheduledFlush() {
+        lifecycleLock.lock();
+        try {
+            if (active) {
+                flush();
+            }
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    public boolean tracks(int id) {
+        return active && entries.containsKey(id);
+    }
+
+    public boolean reserve(int id, int quantity) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            throw new IllegalStateException("Stock ledger does not track product " + id);
+        }
+
+        int available;
+        do {
+            available = entry.available.get();
+            if (available < quantity) {
+                rejectedCounter.increment();
+                return false;
+            }
+        } while (!entry.available.compareAndSet(available, available - quantity));
+
+        // The reservation only counts once it is in the journal; if the append fails the units go back.
+        // Line and pending count change together so a compaction never sees one without the other.
+        journalLock.readLock().lock();
+        try {
+            append(line(RESERVED, id, quantity));
+            entry.pending.add(quantity);
+        } catch (UncheckedIOException exception) {
+            entry.available.addAndGet(quantity);
+            throw exception;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        reservedCounter.increment();
+        return true;
+    }
+
+    /**
+     * Carries an admin stock change over to the ledger. The difference is added instead of the new
+     * value being set, so reservations made meanwhile and deltas not yet flushed are kept.
+     */
+    public void stockChanged(int id, int previousStock, int newStock) {
+        if (!tracks(id) || previousStock == newStock) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                entry.available.addAndGet(newStock - previousStock);
+            }
+        });
+    }
+
+    public void productRemoved(int id) {
+        if (tracks(id)) {
+            TransactionHooks.afterCommit(() -> entries.remove(id));
+        }
+    }
+
+    public int available(int id) {
+        Entry entry = entries.get(id);
+        return entry == null ? 0 : entry.available.get();
+    }
+
+    /**
+     * Writes the reserved quantities collected since the last flush to the database in one
+     * transaction and compacts the journal. A failed flush leaves the quantities pending for the next
+     * run, which first drops the failed flush from the journal so its sequence number can be reused.
+     */
+    public void flush() {
+        lifecycleLock.lock();
+        try {
+            flushPending();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        if (compactionPending && !compact()) {
+            flushFailedCounter.increment();
+            log.warn("Stock ledger journal {} could not be compacted; flush postponed", journalPath);
+            return;
+        }
+
+        Map<Integer, Integer> deltas = new HashMap<>();
+        entries.forEach((id, entry) -> {
+            int delta = (int) entry.pending.sum();
+            if (delta != 0) {
+                deltas.put(id, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        long sequence = flushSequence + 1;
+        try {
+            append(flushLines(sequence, deltas));
+            applyFlush(sequence, deltas);
+        } catch (RuntimeException exception) {
+            compactionPending = true;
+            flushFailedCounter.increment();
+            log.warn("Stock ledger flush {} failed; {} products stay pending", sequence, deltas.size(), exception);
+            return;
+        }
+        flushSequence = sequence;
+
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE);
+        Cache jsonCache = cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE);
+        deltas.forEach((id, delta) -> {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                // Subtract rather than reset: reservations that arrived during the flush stay pending.
+                entry.pending.add(-delta);
+            }
+            if (cache != null) {
+                cache.evict(id);
+            }
+            if (jsonCache != null) {
+                jsonCache.evict(id);
+            }
+            entityTagRegistry.productStockChanged(id);
+        });
+
+        // The flush lines of a committed flush stay valid on replay, so a failed compaction only delays the next flush.
+        compactionPending = !compact();
+    }
+
+    long pending() {
+        long pending = 0;
+        for (Entry entry : entries.values()) {
+            pending += entry.pending.sum();
+        }
+        return pending;
+    }
+
+    private void recover() {
+        Optional<StockLedgerCheckpoint> checkpoint = checkpointRepository.findById(StockLedgerCheckpoint.LEDGER_ID);
+        if (checkpoint.isEmpty()) {
+            checkpointRepository.save(new StockLedgerCheckpoint(StockLedgerCheckpoint.LEDGER_ID, 0));
+        }
+        flushSequence = checkpoint.map(StockLedgerCheckpoint::getFlushSequence).orElse(0L);
+
+        // The replay is a flush of its own, so a crash before the journal is compacted does not replay it again.
+        Map<Integer, Integer> unflushed = readJournal(flushSequence);
+        if (!unflushed.isEmpty()) {
+            long sequence = flushSequence + 1;
+            append(flushLines(sequence, unflushed));
+            applyFlush(sequence, unflushed);
+            flushSequence = sequence;
+        }
+        if (!compact()) {
+            throw new UncheckedIOException(new IOException("Stock ledger journal could not be compacted: " + journalPath));
+        }
+    }
+
+    private void applyFlush(long sequence, Map<Integer, Integer> deltas) {
+        transactionTemplate.executeWithoutResult(status -> {
+            deltas.forEach(productRepository::applyReservedStock);
+            checkpointRepository.updateFlushSequence(StockLedgerCheckpoint.LEDGER_ID, sequence);
+        });
+    }
+
+    // Reserved lines add up; flush lines are subtracted only if their sequence was committed.
+    private Map<Integer, Integer> readJournal(long committedSequence) {
+        Map<Integer, Integer> unflushed = new HashMap<>();
+        String content;
+        try {
+            content = Files.readString(journalPath, StandardCharsets.US_ASCII);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        // A line without its newline was cut off by a crash mid-write and was never acknowledged.
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return unflushed;
+        }
+        for (String line : content.substring(0, end).split("\n")) {
+            String[] fields = line.split(" ");
+            if (fields.length == 3 && fields[0].charAt(0) == RESERVED) {
+                unflushed.merge(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), Integer::sum);
+            } else if (fields.length == 4 && fields[0].charAt(0) == FLUSHED
+                    && Long.parseLong(fields[1]) <= committedSequence) {
+                unflushed.merge(Integer.parseInt(fields[2]), -Integer.parseInt(fields[3]), Integer::sum);
+            }
+        }
+        unflushed.values().removeIf(quantity -> quantity == 0);
+        return unflushed;
+    }
+
+    /**
+     * Replaces the journal with one that holds a single reserved line per product with pending units.
+     * The new file is written next to the journal and renamed over it, so a crash leaves either the
+     * old journal or the complete new one. Reservations wait on the write lock meanwhile.
+     */
+    private boolean compact() {
+        journalLock.writeLock().lock();
+        try {
+            StringBuilder lines = new StringBuilder();
+            entries.forEach((id, entry) -> {
+                long pending = entry.pending.sum();
+                if (pending != 0) {
+                    lines.append(line(RESERVED, id, pending));
+                }
+            });
+
+            FileChannel compacted;
+            try {
+                Files.deleteIfExists(compactedJournalPath);
+                compacted = openChannel(compactedJournalPath, StandardOpenOption.CREATE_NEW);
+            } catch (UncheckedIOException | IOException exception) {
+                return false;
+            }
+            try {
+                write(compacted, lines.toString());
+                if (syncJournal) {
+                    compacted.force(true);
+                }
+                Files.move(compactedJournalPath, journalPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (UncheckedIOException | IOException exception) {
+                closeQuietly(compacted);
+                return false;
+            }
+            // The channel follows the renamed file, so appends continue in the compacted journal.
+            FileChannel previous = journal;
+            journal = compacted;
+            closeQuietly(previous);
+            compactionPending = false;
+            return true;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    private FileChannel openChannel(Path path, OpenOption create) {
+        List<OpenOption> options = new ArrayList<>(List.of(create, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        if (syncJournal) {
+            options.add(StandardOpenOption.DSYNC);
+        }
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            return FileChannel.open(path, options.toArray(OpenOption[]::new));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void closeJournal() {
+        journalLock.writeLock().lock();
+        try {
+            journal.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing was written through this channel that the journal still depends on.
+        }
+    }
+
+    private static String line(char type, int id, long quantity) {
+        return type + " " + id + " " + quantity + "\n";
+    }
+
+    private static String flushLines(long sequence, Map<Integer, Integer> deltas) {
+        StringBuilder lines = new StringBuilder();
+        deltas.forEach((id, delta) -> lines.append(FLUSHED + " " + sequence + " " + id + " " + delta + "\n"));
+        return lines.toString();
+    }
+
+    private void append(String lines) {
+        write(journal, lines);
+    }
+
+    // One write per append on an append-mode channel, so concurrent lines never interleave.
+    private static void write(FileChannel channel, String lines) {
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.US_ASCII));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static final class Entry {
+
+        private final AtomicInteger available;
+        private final LongAdder pending = new LongAdder();
+
+        private Entry(int available) {
+            this.available = new AtomicInteger(available);
+        }
+    }
+}
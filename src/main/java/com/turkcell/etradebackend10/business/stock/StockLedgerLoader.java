@@ -0,0 +1,24 @@
+package com.turkcell.etradebackend10.business.stock;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the {@link StockLedger}; a no-op unless {@code etrade.stock-ledger.enabled} is set. The ledger
+ * starts while the context is refreshed, before the web server accepts requests, so no reservation can
+ * reach the database after it has loaded the stock and then be sold a second time from memory.
+ */
+@Component
+public class StockLedgerLoader implements SmartInitializingSingleton {
+
+    private final StockLedger stockLedger;
+
+    public StockLedgerLoader(StockLedger stockLedger) {
+        this.stockLedger = stockLedger;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        stockLedger.start();
+    }
+}
@@ -0,0 +1,13 @@
+package com.turkcell.etradebackend10.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCT_BY_ID_CACHE = "productById";
+    public static final String CATEGORY_BY_ID_CACHE = "categoryById";
+    public static final String PRODUCT_JSON_CACHE = "productJson";
+}
@@ -0,0 +1,56 @@
+package com.turkcell.etradebackend10.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rows written while ids came from IDENTITY columns are not known to the id sequences, so on
+ * startup each sequence is moved past the highest existing id before the pooled optimizer hands
+ * out a block that could collide with them. This runs while the context is still being refreshed,
+ * before the web server accepts requests; once an insert has fetched a colliding block, restarting
+ * the sequence no longer helps.
+ */
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final Dialect dialect;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dialect = sessionFactory.getJdbcServices().getDialect();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        alignAll();
+    }
+
+    void alignAll() {
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof SequenceStyleGenerator generator) {
+                align(persister.getTableName(),
+                        generator.getDatabaseStructure().getPhysicalName().render(),
+                        generator.getOptimizer().getIncrementSize());
+            }
+        });
+    }
+
+    void align(String table, String sequence, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        Long nextValue = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+
+        // The pooled optimizer treats a sequence value as the upper bound of a block of allocationSize ids.
+        if (nextValue - allocationSize < maxId) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + allocationSize));
+        }
+    }
+}
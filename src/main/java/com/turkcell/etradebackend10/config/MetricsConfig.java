@@ -0,0 +1,35 @@
+package com.turkcell.etradebackend10.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "etrade.service";
+    public static final String ERRORS_METRIC = "etrade.errors";
+    public static final String HTTP_QUERIES_METRIC = "etrade.http.queries";
+    public static final String NAME_FILTER_METRIC = "etrade.name.filter";
+    public static final String STOCK_LEDGER_METRIC = "etrade.stock.ledger";
+    public static final String PRODUCT_JSON_CACHE_METRIC = "etrade.product.json.cache";
+    public static final String PURGE_METRIC = "etrade.purge";
+
+    @Bean
+    public QueryCountInspector queryCountInspector() {
+        return new QueryCountInspector();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer(QueryCountInspector queryCountInspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountInspector);
+    }
+
+    @Bean
+    public QueryCountObservationHandler queryCountObservationHandler(QueryCountInspector queryCountInspector,
+                                                                     MeterRegistry meterRegistry) {
+        return new QueryCountObservationHandler(queryCountInspector, meterRegistry);
+    }
+}
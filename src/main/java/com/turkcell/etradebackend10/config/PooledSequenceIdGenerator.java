@@ -0,0 +1,30 @@
+package com.turkcell.etradebackend10.config;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+
+import java.util.Properties;
+
+/**
+ * Per-table pooled sequence whose block size comes from the {@value #ALLOCATION_SIZE_SETTING}
+ * JPA property instead of being fixed in the mapping annotations.
+ */
+public class PooledSequenceIdGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "etrade.id.allocation-size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) {
+        int allocationSize = creationContext.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        super.configure(creationContext, parameters);
+    }
+}
@@ -0,0 +1,49 @@
+package com.turkcell.etradebackend10.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+/**
+ * Records how many SQL statements each HTTP request executed, tagged with the same method and uri
+ * as {@code http.server.requests}.
+ */
+public class QueryCountObservationHandler implements ObservationHandler<ServerRequestObservationContext> {
+
+    private final QueryCountInspector queryCountInspector;
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountObservationHandler(QueryCountInspector queryCountInspector, MeterRegistry meterRegistry) {
+        this.queryCountInspector = queryCountInspector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onStart(ServerRequestObservationContext context) {
+        queryCountInspector.start();
+    }
+
+    @Override
+    public void onStop(ServerRequestObservationContext context) {
+        int queries = queryCountInspector.stop();
+        DistributionSummary.builder(MetricsConfig.HTTP_QUERIES_METRIC)
+                .description("SQL statements executed per HTTP request")
+                .tag("method", tagValue(context, "method"))
+                .tag("uri", tagValue(context, "uri"))
+                .register(meterRegistry)
+                .record(queries);
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof ServerRequestObservationContext;
+    }
+
+    private static String tagValue(ServerRequestObservationContext context, String key) {
+        KeyValue keyValue = context.getLowCardinalityKeyValue(key);
+        return keyValue != null ? keyValue.getValue() : "UNKNOWN";
+    }
+}
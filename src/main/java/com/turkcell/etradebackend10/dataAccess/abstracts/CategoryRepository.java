@@ -1,11 +1,58 @@
 package com.turkcell.etradebackend10.dataAccess.abstracts;
 
 import com.turkcell.etradebackend10.entities.concretes.Category;
+import com.turkcell.etradebackend10.entities.dtos.responses.category.GetAllCategoriesResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
-    boolean existsByName(String name);
+    @Query("""
+            select new com.turkcell.etradebackend10.entities.dtos.responses.category.GetAllCategoriesResponse(c.id, c.name)
+            from Category c
+            order by c.id
+            """)
+    List<GetAllCategoriesResponse> findAllCategoryResponses();
+
+    // One grouped scan over idx_products_category_active_price; the left join keeps categories without products at 0.
+    @Query("""
+            select new com.turkcell.etradebackend10.entities.dtos.responses.category.GetAllCategoriesResponse(
+                c.id, c.name, count(p.id), coalesce(sum(case when p.unitsInStock > 0 then 1 else 0 end), 0))
+            from Category c left join c.products p
+            group by c.id, c.name
+            order by c.id
+            """)
+    List<GetAllCategoriesResponse> findAllCategoryResponsesWithCounts();
+
+    // Soft-deleted rows are invisible to entity queries and HQL updates, so restore and purge use native SQL.
+    @Query(value = "select count(*) from categories where id = :id and is_active = false", nativeQuery = true)
+    long countDeletedById(@Param("id") int id);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update categories
+            set is_active = true, deleted_date = null, updated_date = :now, version = version + 1
+            where id = :id and is_active = false
+            """, nativeQuery = true)
+    int restore(@Param("id") int id, @Param("now") LocalDateTime now);
 
-    boolean existsByNameAndIdNot(String name, int id);
+    // Categories still referenced by a (soft-deleted) product wait until the product itself is purged.
+    @Transactional
+    @Modifying
+    @Query(value = """
+            delete from categories where id in (
+                select c.id from categories c
+                where c.is_active = false and c.deleted_date < :cutoff
+                  and not exists (select 1 from products p where p.category_id = c.id)
+                order by c.deleted_date
+                limit :batchSize)
+            """, nativeQuery = true)
+    int purgeDeletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
 }
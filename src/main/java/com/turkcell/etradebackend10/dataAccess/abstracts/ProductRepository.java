@@ -1,11 +1,87 @@
 package com.turkcell.etradebackend10.dataAccess.abstracts;
 
 import com.turkcell.etradebackend10.entities.concretes.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
-    boolean existsByName(String name);
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductRepositoryCustom {
 
-    boolean existsByNameAndIdNot(String name, int id);
+    // Native so soft-deleted rows count too: uk_products_name keeps their names taken until they are purged.
+    @Query(value = "select name from products", nativeQuery = true)
+    List<String> findAllNames();
+
+    @Query(value = "select name from products where name in (:names)", nativeQuery = true)
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    boolean existsByCategoryId(int categoryId);
+
+    // A single conditional UPDATE: the row lock is held only for this statement and stock can never go
+    // negative. The version bump makes a concurrent PUT carrying the old stock fail with 409.
+    @Transactional
+    @Modifying
+    @Query("""
+            update Product p
+            set p.unitsInStock = p.unitsInStock - :quantity, p.version = p.version + 1
+            where p.id = :id and p.unitsInStock >= :quantity
+            """)
+    int reserveStock(@Param("id") int id, @Param("quantity") int quantity);
+
+    // Write-behind target of the stock ledger, which has already checked the stock in memory.
+    @Transactional
+    @Modifying
+    @Query("""
+            update Product p
+            set p.unitsInStock = p.unitsInStock - :quantity, p.version = p.version + 1
+            where p.id = :id
+            """)
+    int applyReservedStock(@Param("id") int id, @Param("quantity") int quantity);
+
+    // Soft-deleted rows are invisible to entity queries and HQL updates, so restore and purge use native SQL.
+    @Query(value = "select count(*) from products where id = :id and is_active = false", nativeQuery = true)
+    long countDeletedById(@Param("id") int id);
+
+    @Query(value = """
+            select count(*) from products p join categories c on c.id = p.category_id
+            where p.id = :id and c.is_active = false
+            """, nativeQuery = true)
+    long countDeletedCategoryOf(@Param("id") int id);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            update products
+            set is_active = true, deleted_date = null, updated_date = :now, version = version + 1
+            where id = :id and is_active = false
+            """, nativeQuery = true)
+    int restore(@Param("id") int id, @Param("now") LocalDateTime now);
+
+    // One bounded batch per call and per transaction; the subquery walks idx_products_deleted.
+    @Transactional
+    @Modifying
+    @Query(value = """
+            delete from products where id in (
+                select id from products
+                where is_active = false and deleted_date < :cutoff
+                order by deleted_date
+                limit :batchSize)
+            """, nativeQuery = true)
+    int purgeDeletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p left join fetch p.category order by p.id")
+    Stream<Product> streamAllForExport();
 }
@@ -0,0 +1,15 @@
+package com.turkcell.etradebackend10.dataAccess.abstracts;
+
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    List<GetAllProductsResponse> findProductResponses(GetAllProductsRequest filter, Sort sort);
+
+    List<GetAllProductsResponse> findProductResponsesAfter(GetAllProductsRequest filter, int afterId, Limit limit);
+}
@@ -0,0 +1,97 @@
+package com.turkcell.etradebackend10.dataAccess.abstracts;
+
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the product listing query from only the filters that were given, so each combination gets
+ * plain {@code column = ?} / {@code column >= ?} predicates the database can match against
+ * {@code idx_products_category_active_price} and {@code idx_products_active_price}, together with the
+ * {@code is_active = true} condition the soft-delete filter adds. The keyset page applies the same
+ * filters and walks them in id order from the cursor.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public ProductRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<GetAllProductsResponse> findProductResponses(GetAllProductsRequest filter, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GetAllProductsResponse> query = cb.createQuery(GetAllProductsResponse.class);
+        Root<Product> product = selectResponses(cb, query);
+        query.where(filterPredicates(cb, product, filter).toArray(Predicate[]::new));
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<Object> path = product.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        // Ties on the sort column keep a stable order across requests.
+        if (sort.getOrderFor("id") == null) {
+            orders.add(cb.asc(product.get("id")));
+        }
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<GetAllProductsResponse> findProductResponsesAfter(GetAllProductsRequest filter, int afterId, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GetAllProductsResponse> query = cb.createQuery(GetAllProductsResponse.class);
+        Root<Product> product = selectResponses(cb, query);
+        List<Predicate> predicates = filterPredicates(cb, product, filter);
+        predicates.add(cb.greaterThan(product.get("id"), afterId));
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(product.get("id")));
+
+        TypedQuery<GetAllProductsResponse> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private static Root<Product> selectResponses(CriteriaBuilder cb, CriteriaQuery<GetAllProductsResponse> query) {
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category", JoinType.LEFT);
+
+        query.select(cb.construct(GetAllProductsResponse.class,
+                product.get("id"), product.get("name"), product.get("unitPrice"), product.get("unitsInStock"),
+                product.get("imageUrl"), cb.coalesce(category.<Integer>get("id"), 0), category.get("name")));
+        return product;
+    }
+
+    private static List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Product> product, GetAllProductsRequest filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCategoryId() != null) {
+            predicates.add(cb.equal(product.get("category").get("id"), filter.getCategoryId()));
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("unitPrice"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("unitPrice"), filter.getMaxPrice()));
+        }
+        if (filter.getInStock() != null) {
+            predicates.add(filter.getInStock()
+                    ? cb.greaterThan(product.get("unitsInStock"), 0)
+                    : cb.lessThanOrEqualTo(product.get("unitsInStock"), 0));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,14 @@
+package com.turkcell.etradebackend10.dataAccess.abstracts;
+
+import com.turkcell.etradebackend10.entities.concretes.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, Integer> {
+
+    @Modifying
+    @Query("update StockLedgerCheckpoint c set c.flushSequence = :sequence where c.id = :id")
+    int updateFlushSequence(@Param("id") int id, @Param("sequence") long sequence);
+}
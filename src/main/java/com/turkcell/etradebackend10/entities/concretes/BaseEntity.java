@@ -1,14 +1,27 @@
 package com.turkcell.etradebackend10.entities.concretes;
 
+import com.turkcell.etradebackend10.config.PooledSequenceId;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
 
 import java.time.LocalDateTime;
 
+/**
+ * Rows are never deleted by the application: a delete clears {@code is_active} and stamps
+ * {@code deleted_date}. The {@value #ACTIVE_FILTER} filter is enabled in every session and also applies
+ * to loads by id, so entity reads only ever see active rows; restore and purge go through native SQL.
+ */
 @MappedSuperclass
+@FilterDef(name = BaseEntity.ACTIVE_FILTER, defaultCondition = "is_active = true", autoEnabled = true, applyToLoadByKey = true)
+@Filter(name = BaseEntity.ACTIVE_FILTER)
 public abstract class BaseEntity {
 
+    public static final String ACTIVE_FILTER = "activeOnly";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledSequenceId
     @Column(name = "id")
     private int id;
 
@@ -24,6 +37,12 @@ public abstract class BaseEntity {
     @Column(name = "is_active")
     private boolean isActive;
 
+    // Rows written before the column existed start at 0.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public BaseEntity() {
     }
 
@@ -75,6 +94,14 @@ public abstract class BaseEntity {
         isActive = active;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @PrePersist
     protected void onCreate() {
         this.createdDate = LocalDateTime.now();
@@ -1,13 +1,18 @@
 package com.turkcell.etradebackend10.entities.concretes;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Filter;
 
 import java.util.List;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories",
+        uniqueConstraints = @UniqueConstraint(name = Category.NAME_UNIQUE_CONSTRAINT, columnNames = "name"),
+        indexes = @Index(name = "idx_categories_deleted", columnList = "is_active, deleted_date"))
 public class Category extends BaseEntity {
 
+    public static final String NAME_UNIQUE_CONSTRAINT = "uk_categories_name";
+
     @Column(name = "name", nullable = false)
     private String name;
 
@@ -15,6 +20,7 @@ public class Category extends BaseEntity {
     private String description;
 
     @OneToMany(mappedBy = "category")
+    @Filter(name = BaseEntity.ACTIVE_FILTER)
     private List<Product> products;
 
     public Category() {
@@ -3,9 +3,17 @@ package com.turkcell.etradebackend10.entities.concretes;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+        uniqueConstraints = @UniqueConstraint(name = Product.NAME_UNIQUE_CONSTRAINT, columnNames = "name"),
+        indexes = {
+                @Index(name = "idx_products_category_active_price", columnList = "category_id, is_active, unit_price"),
+                @Index(name = "idx_products_active_price", columnList = "is_active, unit_price"),
+                @Index(name = "idx_products_deleted", columnList = "is_active, deleted_date")
+        })
 public class Product extends BaseEntity {
 
+    public static final String NAME_UNIQUE_CONSTRAINT = "uk_products_name";
+
     @Column(name = "name", nullable = false)
     private String name;
 
@@ -0,0 +1,46 @@
+package com.turkcell.etradebackend10.entities.concretes;
+
+import jakarta.persistence.*;
+
+/**
+ * The sequence number of the last stock ledger flush that reached the database. It is updated in the
+ * same transaction as the flushed stock, so on replay the ledger can tell committed flushes from
+ * ones that were rolled back or never ran.
+ */
+@Entity
+@Table(name = "stock_ledger_checkpoints")
+public class StockLedgerCheckpoint {
+
+    public static final int LEDGER_ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private int id;
+
+    @Column(name = "flush_sequence", nullable = false)
+    private long flushSequence;
+
+    public StockLedgerCheckpoint() {
+    }
+
+    public StockLedgerCheckpoint(int id, long flushSequence) {
+        this.id = id;
+        this.flushSequence = flushSequence;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public long getFlushSequence() {
+        return flushSequence;
+    }
+
+    public void setFlushSequence(long flushSequence) {
+        this.flushSequence = flushSequence;
+    }
+}
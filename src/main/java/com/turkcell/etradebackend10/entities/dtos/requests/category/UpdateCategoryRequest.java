@@ -16,13 +16,17 @@ public class UpdateCategoryRequest {
     @Size(max = 500, message = "Açıklama en fazla 500 karakter olabilir.")
     private String description;
 
+    @NotNull(message = "Sürüm boş olamaz.")
+    private Long version;
+
     public UpdateCategoryRequest() {
     }
 
-    public UpdateCategoryRequest(int id, String name, String description) {
+    public UpdateCategoryRequest(int id, String name, String description, Long version) {
         this.id = id;
         this.name = name;
         this.description = description;
+        this.version = version;
     }
 
     public int getId() {
@@ -48,4 +52,12 @@ public class UpdateCategoryRequest {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
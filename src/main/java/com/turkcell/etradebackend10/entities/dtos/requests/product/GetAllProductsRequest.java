@@ -0,0 +1,69 @@
+package com.turkcell.etradebackend10.entities.dtos.requests.product;
+
+import jakarta.validation.constraints.Min;
+
+public class GetAllProductsRequest {
+
+    private Integer categoryId;
+
+    @Min(value = 0, message = "Minimum fiyat 0'dan küçük olamaz.")
+    private Double minPrice;
+
+    @Min(value = 0, message = "Maksimum fiyat 0'dan küçük olamaz.")
+    private Double maxPrice;
+
+    private Boolean inStock;
+
+    private String sort;
+
+    public GetAllProductsRequest() {
+    }
+
+    public GetAllProductsRequest(Integer categoryId, Double minPrice, Double maxPrice, Boolean inStock, String sort) {
+        this.categoryId = categoryId;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.inStock = inStock;
+        this.sort = sort;
+    }
+
+    public Integer getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Integer categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+
+    public void setInStock(Boolean inStock) {
+        this.inStock = inStock;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+}
@@ -0,0 +1,24 @@
+package com.turkcell.etradebackend10.entities.dtos.requests.product;
+
+import jakarta.validation.constraints.Min;
+
+public class ReserveStockRequest {
+
+    @Min(value = 1, message = "Rezerve edilecek adet en az 1 olmalıdır.")
+    private int quantity;
+
+    public ReserveStockRequest() {
+    }
+
+    public ReserveStockRequest(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -29,10 +29,13 @@ public class UpdateProductRequest {
     @NotNull(message = "Kategori ID boş olamaz.")
     private int categoryId;
 
+    @NotNull(message = "Sürüm boş olamaz.")
+    private Long version;
+
     public UpdateProductRequest() {
     }
 
-    public UpdateProductRequest(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId) {
+    public UpdateProductRequest(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId, Long version) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -40,6 +43,7 @@ public class UpdateProductRequest {
         this.unitsInStock = unitsInStock;
         this.imageUrl = imageUrl;
         this.categoryId = categoryId;
+        this.version = version;
     }
 
     public int getId() {
@@ -97,4 +101,12 @@ public class UpdateProductRequest {
     public void setCategoryId(int categoryId) {
         this.categoryId = categoryId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
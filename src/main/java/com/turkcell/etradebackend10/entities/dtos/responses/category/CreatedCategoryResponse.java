@@ -8,15 +8,17 @@ public class CreatedCategoryResponse {
     private String name;
     private String description;
     private LocalDateTime createdDate;
+    private long version;
 
     public CreatedCategoryResponse() {
     }
 
-    public CreatedCategoryResponse(int id, String name, String description, LocalDateTime createdDate) {
+    public CreatedCategoryResponse(int id, String name, String description, LocalDateTime createdDate, long version) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.createdDate = createdDate;
+        this.version = version;
     }
 
     public int getId() {
@@ -50,4 +52,12 @@ public class CreatedCategoryResponse {
     public void setCreatedDate(LocalDateTime createdDate) {
         this.createdDate = createdDate;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -1,10 +1,19 @@
 package com.turkcell.etradebackend10.entities.dtos.responses.category;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public class GetAllCategoriesResponse {
 
     private int id;
     private String name;
 
+    // Only filled for ?withCounts=true; left out of the plain list.
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long productCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long inStockCount;
+
     public GetAllCategoriesResponse() {
     }
 
@@ -13,6 +22,13 @@ public class GetAllCategoriesResponse {
         this.name = name;
     }
 
+    public GetAllCategoriesResponse(int id, String name, Long productCount, Long inStockCount) {
+        this.id = id;
+        this.name = name;
+        this.productCount = productCount;
+        this.inStockCount = inStockCount;
+    }
+
     public int getId() {
         return id;
     }
@@ -28,4 +44,20 @@ public class GetAllCategoriesResponse {
     public void setName(String name) {
         this.name = name;
     }
+
+    public Long getProductCount() {
+        return productCount;
+    }
+
+    public void setProductCount(Long productCount) {
+        this.productCount = productCount;
+    }
+
+    public Long getInStockCount() {
+        return inStockCount;
+    }
+
+    public void setInStockCount(Long inStockCount) {
+        this.inStockCount = inStockCount;
+    }
 }
@@ -0,0 +1,40 @@
+package com.turkcell.etradebackend10.entities.dtos.responses.category;
+
+import java.util.List;
+
+/**
+ * Immutable copy of the category list together with its serialized JSON, the gzip form of that JSON
+ * ({@code null} when it would not be smaller) and the ETag that was current when it was read, so the
+ * list endpoint can answer from memory without serializing or compressing again.
+ */
+public final class GetAllCategoriesSnapshot {
+
+    private final List<GetAllCategoriesResponse> categories;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+
+    public GetAllCategoriesSnapshot(List<GetAllCategoriesResponse> categories, byte[] json, byte[] gzip, String etag) {
+        this.categories = List.copyOf(categories);
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = etag;
+    }
+
+    public List<GetAllCategoriesResponse> getCategories() {
+        return categories;
+    }
+
+    // The arrays are shared, not copied: callers only write them to the response.
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -10,17 +10,19 @@ public class GetByIdCategoryResponse {
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
     private boolean isActive;
+    private long version;
 
     public GetByIdCategoryResponse() {
     }
 
-    public GetByIdCategoryResponse(int id, String name, String description, LocalDateTime createdDate, LocalDateTime updatedDate, boolean isActive) {
+    public GetByIdCategoryResponse(int id, String name, String description, LocalDateTime createdDate, LocalDateTime updatedDate, boolean isActive, long version) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.createdDate = createdDate;
         this.updatedDate = updatedDate;
         this.isActive = isActive;
+        this.version = version;
     }
 
     public int getId() {
@@ -70,4 +72,12 @@ public class GetByIdCategoryResponse {
     public void setActive(boolean active) {
         isActive = active;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
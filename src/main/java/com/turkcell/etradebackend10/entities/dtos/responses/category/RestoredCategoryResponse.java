@@ -0,0 +1,41 @@
+package com.turkcell.etradebackend10.entities.dtos.responses.category;
+
+public class RestoredCategoryResponse {
+
+    private int id;
+    private String name;
+    private long version;
+
+    public RestoredCategoryResponse() {
+    }
+
+    public RestoredCategoryResponse(int id, String name, long version) {
+        this.id = id;
+        this.name = name;
+        this.version = version;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
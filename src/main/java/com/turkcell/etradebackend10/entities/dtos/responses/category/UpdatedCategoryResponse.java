@@ -8,15 +8,17 @@ public class UpdatedCategoryResponse {
     private String name;
     private String description;
     private LocalDateTime updatedDate;
+    private long version;
 
     public UpdatedCategoryResponse() {
     }
 
-    public UpdatedCategoryResponse(int id, String name, String description, LocalDateTime updatedDate) {
+    public UpdatedCategoryResponse(int id, String name, String description, LocalDateTime updatedDate, long version) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.updatedDate = updatedDate;
+        this.version = version;
     }
 
     public int getId() {
@@ -50,4 +52,12 @@ public class UpdatedCategoryResponse {
     public void setUpdatedDate(LocalDateTime updatedDate) {
         this.updatedDate = updatedDate;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
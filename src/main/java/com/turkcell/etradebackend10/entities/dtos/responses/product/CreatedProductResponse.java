@@ -13,11 +13,12 @@ public class CreatedProductResponse {
     private int categoryId;
     private String categoryName;
     private LocalDateTime createdDate;
+    private long version;
 
     public CreatedProductResponse() {
     }
 
-    public CreatedProductResponse(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId, String categoryName, LocalDateTime createdDate) {
+    public CreatedProductResponse(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId, String categoryName, LocalDateTime createdDate, long version) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -27,6 +28,7 @@ public class CreatedProductResponse {
         this.categoryId = categoryId;
         this.categoryName = categoryName;
         this.createdDate = createdDate;
+        this.version = version;
     }
 
     public int getId() {
@@ -100,4 +102,12 @@ public class CreatedProductResponse {
     public void setCreatedDate(LocalDateTime createdDate) {
         this.createdDate = createdDate;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
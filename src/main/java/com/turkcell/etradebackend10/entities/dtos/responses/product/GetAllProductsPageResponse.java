@@ -0,0 +1,43 @@
+package com.turkcell.etradebackend10.entities.dtos.responses.product;
+
+import java.util.List;
+
+public class GetAllProductsPageResponse {
+
+    private List<GetAllProductsResponse> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public GetAllProductsPageResponse() {
+    }
+
+    public GetAllProductsPageResponse(List<GetAllProductsResponse> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<GetAllProductsResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<GetAllProductsResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
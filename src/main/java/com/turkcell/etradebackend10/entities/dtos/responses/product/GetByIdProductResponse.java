@@ -15,11 +15,12 @@ public class GetByIdProductResponse {
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
     private boolean isActive;
+    private long version;
 
     public GetByIdProductResponse() {
     }
 
-    public GetByIdProductResponse(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId, String categoryName, LocalDateTime createdDate, LocalDateTime updatedDate, boolean isActive) {
+    public GetByIdProductResponse(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId, String categoryName, LocalDateTime createdDate, LocalDateTime updatedDate, boolean isActive, long version) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -31,6 +32,7 @@ public class GetByIdProductResponse {
         this.createdDate = createdDate;
         this.updatedDate = updatedDate;
         this.isActive = isActive;
+        this.version = version;
     }
 
     public int getId() {
@@ -120,4 +122,12 @@ public class GetByIdProductResponse {
     public void setActive(boolean active) {
         isActive = active;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
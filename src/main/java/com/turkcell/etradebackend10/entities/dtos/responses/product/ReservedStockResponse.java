@@ -0,0 +1,41 @@
+package com.turkcell.etradebackend10.entities.dtos.responses.product;
+
+public class ReservedStockResponse {
+
+    private int productId;
+    private int quantity;
+    private boolean reserved;
+
+    public ReservedStockResponse() {
+    }
+
+    public ReservedStockResponse(int productId, int quantity, boolean reserved) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.reserved = reserved;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public boolean isReserved() {
+        return reserved;
+    }
+
+    public void setReserved(boolean reserved) {
+        this.reserved = reserved;
+    }
+}
@@ -0,0 +1,63 @@
+package com.turkcell.etradebackend10.entities.dtos.responses.product;
+
+import java.util.List;
+
+public class SearchProductsPageResponse {
+
+    private List<SearchedProductResponse> items;
+    private int page;
+    private int size;
+    private int totalCount;
+    private boolean hasNext;
+
+    public SearchProductsPageResponse() {
+    }
+
+    public SearchProductsPageResponse(List<SearchedProductResponse> items, int page, int size, int totalCount, boolean hasNext) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalCount = totalCount;
+        this.hasNext = hasNext;
+    }
+
+    public List<SearchedProductResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<SearchedProductResponse> items) {
+        this.items = items;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,81 @@
+package com.turkcell.etradebackend10.entities.dtos.responses.product;
+
+public class SearchedProductResponse {
+
+    private int id;
+    private String name;
+    private double unitPrice;
+    private String imageUrl;
+    private int categoryId;
+    private String categoryName;
+    private double score;
+
+    public SearchedProductResponse() {
+    }
+
+    public SearchedProductResponse(int id, String name, double unitPrice, String imageUrl, int categoryId, String categoryName, double score) {
+        this.id = id;
+        this.name = name;
+        this.unitPrice = unitPrice;
+        this.imageUrl = imageUrl;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.score = score;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(double unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(int categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
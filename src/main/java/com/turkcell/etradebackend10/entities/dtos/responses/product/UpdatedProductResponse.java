@@ -13,11 +13,12 @@ public class UpdatedProductResponse {
     private int categoryId;
     private String categoryName;
     private LocalDateTime updatedDate;
+    private long version;
 
     public UpdatedProductResponse() {
     }
 
-    public UpdatedProductResponse(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId, String categoryName, LocalDateTime updatedDate) {
+    public UpdatedProductResponse(int id, String name, String description, double unitPrice, int unitsInStock, String imageUrl, int categoryId, String categoryName, LocalDateTime updatedDate, long version) {
         this.id = id;
         this.name = name;
         this.description = description;
@@ -27,6 +28,7 @@ public class UpdatedProductResponse {
         this.categoryId = categoryId;
         this.categoryName = categoryName;
         this.updatedDate = updatedDate;
+        this.version = version;
     }
 
     public int getId() {
@@ -100,4 +102,12 @@ public class UpdatedProductResponse {
     public void setUpdatedDate(LocalDateTime updatedDate) {
         this.updatedDate = updatedDate;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
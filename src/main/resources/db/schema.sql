@@ -0,0 +1,57 @@
+-- Schema for the prod profile, which runs Hibernate with ddl-auto: validate.
+-- Written to run unchanged on PostgreSQL and on H2 in PostgreSQL mode; every statement is idempotent.
+
+create sequence if not exists categories_seq start with 1 increment by 50;
+create sequence if not exists products_seq start with 1 increment by 50;
+
+create table if not exists categories (
+    id integer not null,
+    name varchar(255) not null,
+    description varchar(255),
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    deleted_date timestamp(6),
+    is_active boolean,
+    version bigint default 0 not null,
+    primary key (id),
+    constraint uk_categories_name unique (name)
+);
+
+create table if not exists products (
+    id integer not null,
+    name varchar(255) not null,
+    description varchar(255),
+    unit_price float(53) not null,
+    units_in_stock integer,
+    image_url varchar(255),
+    category_id integer,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    deleted_date timestamp(6),
+    is_active boolean,
+    version bigint default 0 not null,
+    primary key (id),
+    constraint uk_products_name unique (name),
+    constraint fk_products_category foreign key (category_id) references categories (id)
+);
+
+create table if not exists stock_ledger_checkpoints (
+    id integer not null,
+    flush_sequence bigint not null,
+    primary key (id)
+);
+
+-- Every entity read carries "is_active = true" (soft delete), so the active flag is part of each index.
+-- H2 has no partial indexes; an equality prefix gives the same seek on both databases.
+-- category_id leads the category index so it also covers fk_products_category: PostgreSQL does not index
+-- foreign keys on its own, and category deletes and purges would otherwise scan products.
+drop index if exists idx_products_category_price;
+drop index if exists idx_products_active_category_price;
+drop index if exists idx_products_unit_price;
+drop index if exists idx_products_is_active;
+drop index if exists idx_categories_is_active;
+
+create index if not exists idx_products_category_active_price on products (category_id, is_active, unit_price);
+create index if not exists idx_products_active_price on products (is_active, unit_price);
+create index if not exists idx_products_deleted on products (is_active, deleted_date);
+create index if not exists idx_categories_deleted on categories (is_active, deleted_date);
@@ -0,0 +1,57 @@
+package com.turkcell.etradebackend10;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prodprofile;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@ActiveProfiles("prod")
+class ProdProfileApplicationTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private Environment environment;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	@DisplayName("db/schema.sql entity eşlemeleriyle uyumlu olmalı (ddl-auto: validate)")
+	void schemaMatchesEntityMappings() {
+		assertEquals("validate", environment.getProperty("spring.jpa.hibernate.ddl-auto"));
+	}
+
+	@Test
+	@DisplayName("Hikari havuzu sabit boyutlu olmalı ve SQL loglama kapalı olmalı")
+	void poolIsSizedAndSqlLoggingIsOff() {
+		HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+		assertEquals(20, hikari.getMaximumPoolSize());
+		assertEquals(20, hikari.getMinimumIdle());
+		assertEquals("false", environment.getProperty("spring.jpa.show-sql"));
+	}
+
+	@Test
+	@DisplayName("Sürücü ve dialect sabitlenmemeli, URL ve bağlantıdan belirlenmeli")
+	void driverAndDialectAreDetected() {
+		assertNull(environment.getProperty("spring.datasource.driver-class-name"));
+		assertNull(environment.getProperty("spring.jpa.database-platform"));
+		assertEquals("org.h2.Driver", assertInstanceOf(HikariDataSource.class, dataSource).getDriverClassName());
+		assertInstanceOf(H2Dialect.class,
+				entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect());
+		assertEquals("org.postgresql.Driver", DatabaseDriver.fromJdbcUrl("jdbc:postgresql://db:5432/etrade").getDriverClassName());
+	}
+}
@@ -3,11 +3,14 @@ package com.turkcell.etradebackend10.api.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.turkcell.etradebackend10.business.abstracts.CategoryService;
+import com.turkcell.etradebackend10.business.encoding.ResponseCompression;
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
 import com.turkcell.etradebackend10.business.exceptions.GlobalExceptionHandler;
+import com.turkcell.etradebackend10.entities.concretes.Category;
 import com.turkcell.etradebackend10.entities.dtos.requests.category.CreateCategoryRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.category.UpdateCategoryRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.category.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -15,14 +18,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -30,7 +39,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CategoriesController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, SimpleMeterRegistry.class})
 class CategoriesControllerTest {
 
     @Autowired
@@ -50,36 +59,158 @@ class CategoriesControllerTest {
     @DisplayName("GET /api/categories")
     class GetAll {
 
+        private GetAllCategoriesSnapshot snapshot(List<GetAllCategoriesResponse> categories, String etag) throws Exception {
+            byte[] json = objectMapper.writeValueAsBytes(categories);
+            return new GetAllCategoriesSnapshot(categories, json, ResponseCompression.gzipIfSmaller(json), etag);
+        }
+
+        private List<GetAllCategoriesResponse> manyCategories() {
+            List<GetAllCategoriesResponse> categories = new ArrayList<>();
+            for (int id = 1; id <= 50; id++) {
+                categories.add(new GetAllCategoriesResponse(id, "Kategori " + id));
+            }
+            return categories;
+        }
+
         @Test
-        @DisplayName("Kategoriler varsa 200 ve liste döndürmeli")
+        @DisplayName("Kategoriler varsa 200 ve önceden serileştirilmiş listeyi döndürmeli")
         void shouldReturnAllCategories() throws Exception {
             List<GetAllCategoriesResponse> responses = List.of(
                     new GetAllCategoriesResponse(1, "Elektronik"),
                     new GetAllCategoriesResponse(2, "Giyim")
             );
-            when(categoryService.getAll()).thenReturn(responses);
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(responses, "c-1"));
 
             mockMvc.perform(get("/api/categories"))
                     .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string("ETag", "\"c-1\""))
                     .andExpect(jsonPath("$", hasSize(2)))
                     .andExpect(jsonPath("$[0].id", is(1)))
                     .andExpect(jsonPath("$[0].name", is("Elektronik")))
                     .andExpect(jsonPath("$[1].id", is(2)))
                     .andExpect(jsonPath("$[1].name", is("Giyim")));
 
-            verify(categoryService, times(1)).getAll();
+            verify(categoryService, times(1)).getAllSnapshot();
+            verify(categoryService, never()).getAll();
         }
 
         @Test
         @DisplayName("Kategori yoksa 200 ve boş liste döndürmeli")
         void shouldReturnEmptyList() throws Exception {
-            when(categoryService.getAll()).thenReturn(Collections.emptyList());
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(Collections.emptyList(), "c-1"));
 
             mockMvc.perform(get("/api/categories"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(0)));
 
-            verify(categoryService, times(1)).getAll();
+            verify(categoryService, times(1)).getAllSnapshot();
+        }
+
+        @Test
+        @DisplayName("If-None-Match güncel ETag ile eşleşirse gövdesiz 304 döndürmeli")
+        void shouldReturn304WhenETagMatches() throws Exception {
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(List.of(new GetAllCategoriesResponse(1, "Elektronik")), "c-1"));
+
+            mockMvc.perform(get("/api/categories").header("If-None-Match", "\"c-1\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"c-1\""))
+                    .andExpect(content().string(""));
+
+            verify(categoryService, never()).getAll();
+        }
+
+        @Test
+        @DisplayName("Kategori değiştikten sonra eski ETag ile 200 ve yeni ETag döndürmeli")
+        void shouldReturn200WhenCategoriesChanged() throws Exception {
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(List.of(new GetAllCategoriesResponse(1, "Elektronik")), "c-2"));
+
+            mockMvc.perform(get("/api/categories").header("If-None-Match", "\"c-1\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"c-2\""))
+                    .andExpect(jsonPath("$", hasSize(1)));
+        }
+
+        @Test
+        @DisplayName("Accept-Encoding gzip ise anlık görüntünün önceden sıkıştırılmış gövdesini döndürmeli")
+        void shouldServePrecomputedGzip() throws Exception {
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(manyCategories(), "c-1"));
+
+            byte[] body = mockMvc.perform(get("/api/categories").header("Accept-Encoding", "gzip, deflate, br"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                    .andExpect(header().stringValues("ETag", "\"c-1-gz\""))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                List<?> categories = objectMapper.readValue(gzip.readAllBytes(), List.class);
+                assertEquals(50, categories.size());
+            }
+        }
+
+        @Test
+        @DisplayName("gzip gövdesinin ETag'i ile gelen If-None-Match 304 ve aynı ETag'i döndürmeli")
+        void shouldReturn304ForGzipETag() throws Exception {
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(manyCategories(), "c-1"));
+
+            mockMvc.perform(get("/api/categories")
+                            .header("Accept-Encoding", "gzip")
+                            .header("If-None-Match", "\"c-1-gz\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"c-1-gz\""))
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("gzip reddedilirse veya sıkıştırılmış gövde yoksa düz JSON döndürmeli")
+        void shouldServeIdentityWhenGzipNotUsable() throws Exception {
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(manyCategories(), "c-1"));
+
+            mockMvc.perform(get("/api/categories").header("Accept-Encoding", "gzip;q=0"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(header().stringValues("ETag", "\"c-1\""))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                    .andExpect(jsonPath("$", hasSize(50)));
+
+            when(categoryService.getAllSnapshot()).thenReturn(
+                    new GetAllCategoriesSnapshot(List.of(), "[]".getBytes(StandardCharsets.UTF_8), null, "c-1"));
+
+            mockMvc.perform(get("/api/categories").header("Accept-Encoding", "gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(content().string("[]"));
+        }
+
+        @Test
+        @DisplayName("Sayı alanları düz listede yer almamalı")
+        void shouldOmitCountsFromPlainList() throws Exception {
+            when(categoryService.getAllSnapshot()).thenReturn(snapshot(List.of(new GetAllCategoriesResponse(1, "Elektronik")), "c-1"));
+
+            mockMvc.perform(get("/api/categories"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].productCount").doesNotExist())
+                    .andExpect(jsonPath("$[0].inStockCount").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("withCounts=true ile ürün sayılarını ETag olmadan döndürmeli")
+        void shouldReturnCountsWithoutETag() throws Exception {
+            when(categoryService.getAllWithCounts()).thenReturn(List.of(
+                    new GetAllCategoriesResponse(1, "Elektronik", 12L, 9L),
+                    new GetAllCategoriesResponse(2, "Giyim", 0L, 0L)
+            ));
+
+            mockMvc.perform(get("/api/categories").param("withCounts", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"))
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].productCount", is(12)))
+                    .andExpect(jsonPath("$[0].inStockCount", is(9)))
+                    .andExpect(jsonPath("$[1].productCount", is(0)));
+
+            verify(categoryService, never()).getAllSnapshot();
         }
     }
 
@@ -93,7 +224,7 @@ class CategoriesControllerTest {
         @DisplayName("Mevcut ID ile 200 ve kategori döndürmeli")
         void shouldReturnCategoryById() throws Exception {
             GetByIdCategoryResponse response = new GetByIdCategoryResponse(
-                    1, "Elektronik", "Elektronik ürünler", now, null, true
+                    1, "Elektronik", "Elektronik ürünler", now, null, true, 0
             );
             when(categoryService.getById(1)).thenReturn(response);
 
@@ -132,7 +263,7 @@ class CategoriesControllerTest {
         @DisplayName("Geçerli istek ile 201 ve oluşturulan kategori döndürmeli")
         void shouldCreateCategory() throws Exception {
             CreateCategoryRequest request = new CreateCategoryRequest("Elektronik", "Elektronik ürünler");
-            CreatedCategoryResponse response = new CreatedCategoryResponse(1, "Elektronik", "Elektronik ürünler", now);
+            CreatedCategoryResponse response = new CreatedCategoryResponse(1, "Elektronik", "Elektronik ürünler", now, 0);
 
             when(categoryService.add(any(CreateCategoryRequest.class))).thenReturn(response);
 
@@ -212,8 +343,8 @@ class CategoriesControllerTest {
         @Test
         @DisplayName("Geçerli istek ile 200 ve güncellenen kategori döndürmeli")
         void shouldUpdateCategory() throws Exception {
-            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Elektronik v2", "Güncel açıklama");
-            UpdatedCategoryResponse response = new UpdatedCategoryResponse(1, "Elektronik v2", "Güncel açıklama", now);
+            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Elektronik v2", "Güncel açıklama", 0L);
+            UpdatedCategoryResponse response = new UpdatedCategoryResponse(1, "Elektronik v2", "Güncel açıklama", now, 0);
 
             when(categoryService.update(any(UpdateCategoryRequest.class))).thenReturn(response);
 
@@ -231,7 +362,7 @@ class CategoriesControllerTest {
         @Test
         @DisplayName("Boş isim ile güncelleme 400 dönmeli")
         void shouldReturn400WhenUpdateNameIsBlank() throws Exception {
-            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "", "Açıklama");
+            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "", "Açıklama", 0L);
 
             mockMvc.perform(put("/api/categories")
                             .contentType(MediaType.APPLICATION_JSON)
@@ -242,10 +373,24 @@ class CategoriesControllerTest {
             verify(categoryService, never()).update(any(UpdateCategoryRequest.class));
         }
 
+        @Test
+        @DisplayName("Başka bir kullanıcı kategoriyi değiştirdiyse 409 dönmeli")
+        void shouldReturn409OnOptimisticLockFailure() throws Exception {
+            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Elektronik v2", "Güncel açıklama", 2L);
+            when(categoryService.update(any(UpdateCategoryRequest.class)))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Category.class, 1));
+
+            mockMvc.perform(put("/api/categories")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status", is(409)));
+        }
+
         @Test
         @DisplayName("Mevcut olmayan kategori güncellenirken 400 dönmeli")
         void shouldReturn400WhenUpdatingNonExistentCategory() throws Exception {
-            UpdateCategoryRequest request = new UpdateCategoryRequest(99, "Test", "Açıklama");
+            UpdateCategoryRequest request = new UpdateCategoryRequest(99, "Test", "Açıklama", 0L);
 
             when(categoryService.update(any(UpdateCategoryRequest.class)))
                     .thenThrow(new BusinessException("Kategori bulunamadı. ID: 99"));
@@ -291,4 +436,34 @@ class CategoriesControllerTest {
             verify(categoryService, times(1)).delete(99);
         }
     }
+
+    // ==================== POST /api/categories/{id}/restore ====================
+
+    @Nested
+    @DisplayName("POST /api/categories/{id}/restore")
+    class Restore {
+
+        @Test
+        @DisplayName("Silinmiş kategori geri alınınca 200 döndürmeli")
+        void shouldRestoreCategory() throws Exception {
+            when(categoryService.restore(1)).thenReturn(new RestoredCategoryResponse(1, "Elektronik", 2));
+
+            mockMvc.perform(post("/api/categories/1/restore"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(1)))
+                    .andExpect(jsonPath("$.version", is(2)));
+
+            verify(categoryService, times(1)).restore(1);
+        }
+
+        @Test
+        @DisplayName("Silinmiş olmayan kategori için 400 döndürmeli")
+        void shouldReturn400WhenNotDeleted() throws Exception {
+            when(categoryService.restore(99)).thenThrow(new BusinessException("Silinmiş kategori bulunamadı. ID: 99"));
+
+            mockMvc.perform(post("/api/categories/99/restore"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Silinmiş kategori bulunamadı. ID: 99")));
+        }
+    }
 }
@@ -0,0 +1,213 @@
+package com.turkcell.etradebackend10.api.controllers;
+
+import com.turkcell.etradebackend10.Etradebackend10Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sustained load on {@code GET /api/products/{id}} with platform and with virtual request threads.
+ * Every query is slowed down by {@link #QUERY_LATENCY_MS} to stand in for a remote database, the cache
+ * is off, and Tomcat gets fewer threads than Hikari has connections. With platform threads the
+ * Tomcat pool caps throughput; with virtual threads only the connection pool does.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ProductsControllerLoadTest}.
+ */
+@Tag("benchmark")
+class ProductsControllerLoadTest {
+
+    private static final int PRODUCT_COUNT = 1_000;
+    private static final int TOMCAT_THREADS = 8;
+    private static final int POOL_SIZE = 32;
+    private static final int CONCURRENT_CLIENTS = 100;
+    private static final long QUERY_LATENCY_MS = 250;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Sanal thread'ler ile ürün sorgulama, platform thread'lere göre daha yüksek throughput vermeli")
+    void virtualThreadsSustainHigherConcurrency() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-10s %10s %10s %10s %10s %8s%n", "threads", "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+
+        // Upper bounds: TOMCAT_THREADS and POOL_SIZE requests per QUERY_LATENCY_MS respectively.
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertTrue(virtual.requestsPerSecond() > platform.requestsPerSecond() * 1.5,
+                "virtual: " + virtual.requestsPerSecond() + ", platform: " + platform.requestsPerSecond());
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            seed(context.getBean(JdbcTemplate.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            load(port, WARMUP);
+            return load(port, MEASUREMENT);
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(Etradebackend10Application.class, SlowQueries.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.cache.type=none",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into categories (id, name, is_active) values (1, 'Yük Testi', true)");
+        List<Object[]> products = new ArrayList<>(PRODUCT_COUNT);
+        for (int id = 1; id <= PRODUCT_COUNT; id++) {
+            products.add(new Object[]{id, "Ürün " + id, 10.0, 5, 1});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into products (id, name, unit_price, units_in_stock, category_id, is_active) values (?, ?, ?, ?, ?, true)",
+                products);
+    }
+
+    private Result load(int port, Duration duration) throws InterruptedException {
+        List<long[]> latencies = new ArrayList<>();
+        AtomicInteger errors = new AtomicInteger();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        // The client executor is closed first, so every request has finished before the HttpClient shuts down.
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                long[] clientLatencies = new long[1 << 16];
+                latencies.add(clientLatencies);
+                clients.submit(() -> {
+                    int count = 0;
+                    while (System.nanoTime() < deadline && count < clientLatencies.length - 1) {
+                        int id = ThreadLocalRandom.current().nextInt(1, PRODUCT_COUNT + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/" + id)).build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception exception) {
+                            errors.incrementAndGet();
+                        }
+                        clientLatencies[++count] = System.nanoTime() - start;
+                    }
+                    clientLatencies[0] = count;
+                });
+            }
+        }
+
+        long[] all = latencies.stream()
+                .flatMapToLong(clientLatencies -> Arrays.stream(clientLatencies, 1, (int) clientLatencies[0] + 1))
+                .sorted()
+                .toArray();
+        return new Result(all.length / (double) duration.toSeconds(),
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), errors.get());
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        return sortedNanos[(int) Math.ceil(percentile * sortedNanos.length) - 1] / 1_000_000.0;
+    }
+
+    private record Result(double requestsPerSecond, double p50, double p95, double p99, int errors) {
+
+        void print(String mode) {
+            System.out.printf("%-10s %10.0f %10.1f %10.1f %10.1f %8d%n", mode, requestsPerSecond, p50, p95, p99, errors);
+        }
+    }
+
+    /**
+     * Holds every query for {@link #QUERY_LATENCY_MS} while keeping its connection checked out, the
+     * way a query against a remote database server would.
+     */
+    static class SlowQueries implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof SlowDataSource) {
+                return bean;
+            }
+            return new SlowDataSource(dataSource);
+        }
+    }
+
+    private static class SlowDataSource extends DelegatingDataSource {
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                            return slow(statement);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement slow(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(SlowDataSource.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("executeQuery")) {
+                            Thread.sleep(QUERY_LATENCY_MS);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException exception) {
+                throw exception.getTargetException();
+            }
+        }
+    }
+}
@@ -3,38 +3,66 @@ package com.turkcell.etradebackend10.api.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import com.turkcell.etradebackend10.business.encoding.ProductJsonCache;
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
 import com.turkcell.etradebackend10.business.exceptions.GlobalExceptionHandler;
+import com.turkcell.etradebackend10.config.CacheConfig;
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import com.turkcell.etradebackend10.entities.concretes.Product;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.CreateProductRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.ReserveStockRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.UpdateProductRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.product.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductsController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, SimpleMeterRegistry.class, EntityTagRegistry.class, ProductJsonCache.class, ConcurrentMapCacheManager.class})
 class ProductsControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private EntityTagRegistry entityTagRegistry;
+
     @MockitoBean
     private ProductService productService;
 
@@ -56,7 +84,7 @@ class ProductsControllerTest {
                     new GetAllProductsResponse(1, "Laptop", 15000.0, 10, "laptop.jpg", 1, "Elektronik"),
                     new GetAllProductsResponse(2, "Telefon", 10000.0, 20, "telefon.jpg", 1, "Elektronik")
             );
-            when(productService.getAll()).thenReturn(responses);
+            when(productService.getAll(any(GetAllProductsRequest.class))).thenReturn(responses);
 
             mockMvc.perform(get("/api/products"))
                     .andExpect(status().isOk())
@@ -71,19 +99,226 @@ class ProductsControllerTest {
                     .andExpect(jsonPath("$[1].id", is(2)))
                     .andExpect(jsonPath("$[1].name", is("Telefon")));
 
-            verify(productService, times(1)).getAll();
+            verify(productService, times(1)).getAll(any(GetAllProductsRequest.class));
         }
 
         @Test
         @DisplayName("Ürün yoksa 200 ve boş liste döndürmeli")
         void shouldReturnEmptyList() throws Exception {
-            when(productService.getAll()).thenReturn(Collections.emptyList());
+            when(productService.getAll(any(GetAllProductsRequest.class))).thenReturn(Collections.emptyList());
 
             mockMvc.perform(get("/api/products"))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(0)));
 
-            verify(productService, times(1)).getAll();
+            verify(productService, times(1)).getAll(any(GetAllProductsRequest.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/products?categoryId=&minPrice=&maxPrice=&inStock=&sort=")
+    class GetAllFiltered {
+
+        @Test
+        @DisplayName("Filtre ve sıralama parametrelerini servise iletmeli")
+        void shouldPassFiltersToService() throws Exception {
+            when(productService.getAll(any(GetAllProductsRequest.class))).thenReturn(List.of(
+                    new GetAllProductsResponse(2, "Telefon", 90.0, 20, "telefon.jpg", 1, "Elektronik")));
+
+            mockMvc.perform(get("/api/products")
+                            .param("categoryId", "1")
+                            .param("minPrice", "10")
+                            .param("maxPrice", "100")
+                            .param("inStock", "true")
+                            .param("sort", "unitPrice,desc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id", is(2)));
+
+            ArgumentCaptor<GetAllProductsRequest> captor = ArgumentCaptor.forClass(GetAllProductsRequest.class);
+            verify(productService).getAll(captor.capture());
+            GetAllProductsRequest request = captor.getValue();
+            assertEquals(1, request.getCategoryId());
+            assertEquals(10.0, request.getMinPrice());
+            assertEquals(100.0, request.getMaxPrice());
+            assertEquals(true, request.getInStock());
+            assertEquals("unitPrice,desc", request.getSort());
+        }
+
+        @Test
+        @DisplayName("Negatif minimum fiyat ile 400 ve validasyon hatası döndürmeli")
+        void shouldReturn400WhenMinPriceNegative() throws Exception {
+            mockMvc.perform(get("/api/products").param("minPrice", "-1"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors.minPrice", is("Minimum fiyat 0'dan küçük olamaz.")));
+
+            verify(productService, never()).getAll(any(GetAllProductsRequest.class));
+        }
+
+        @Test
+        @DisplayName("Geçersiz sıralama ile 400 döndürmeli")
+        void shouldReturn400WhenSortInvalid() throws Exception {
+            when(productService.getAll(any(GetAllProductsRequest.class)))
+                    .thenThrow(new BusinessException("Geçersiz sıralama: password,asc"));
+
+            mockMvc.perform(get("/api/products").param("sort", "password,asc"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Geçersiz sıralama: password,asc")));
+        }
+    }
+
+    // ==================== GET /api/products?limit= ====================
+
+    @Nested
+    @DisplayName("GET /api/products?after=&limit=")
+    class GetAllPaged {
+
+        @Test
+        @DisplayName("limit parametresi ile 200 ve sayfa döndürmeli")
+        void shouldReturnPage() throws Exception {
+            GetAllProductsPageResponse response = new GetAllProductsPageResponse(
+                    List.of(new GetAllProductsResponse(3, "Tablet", 8000.0, 5, "tablet.jpg", 1, "Elektronik")),
+                    "Mw", true
+            );
+            when(productService.getAllPaged(any(GetAllProductsRequest.class), eq("Mg"), eq(1))).thenReturn(response);
+
+            mockMvc.perform(get("/api/products").param("after", "Mg").param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].id", is(3)))
+                    .andExpect(jsonPath("$.nextCursor", is("Mw")))
+                    .andExpect(jsonPath("$.hasNext", is(true)));
+
+            verify(productService, times(1)).getAllPaged(any(GetAllProductsRequest.class), eq("Mg"), eq(1));
+            verify(productService, never()).getAll(any(GetAllProductsRequest.class));
+        }
+
+        @Test
+        @DisplayName("Filtre parametreleri sayfalı listelemeye aktarılmalı")
+        void shouldPassFiltersToPagedListing() throws Exception {
+            when(productService.getAllPaged(any(GetAllProductsRequest.class), eq(null), eq(20)))
+                    .thenReturn(new GetAllProductsPageResponse(Collections.emptyList(), null, false));
+
+            mockMvc.perform(get("/api/products")
+                            .param("limit", "20")
+                            .param("categoryId", "3")
+                            .param("minPrice", "10")
+                            .param("maxPrice", "500")
+                            .param("inStock", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hasNext", is(false)));
+
+            ArgumentCaptor<GetAllProductsRequest> captor = ArgumentCaptor.forClass(GetAllProductsRequest.class);
+            verify(productService).getAllPaged(captor.capture(), eq(null), eq(20));
+            assertEquals(3, captor.getValue().getCategoryId());
+            assertEquals(10.0, captor.getValue().getMinPrice());
+            assertEquals(500.0, captor.getValue().getMaxPrice());
+            assertEquals(true, captor.getValue().getInStock());
+        }
+
+        @Test
+        @DisplayName("Sayfalı listelemede sıralama istenirse 400 döndürmeli")
+        void shouldReturn400WhenSortRequestedWithLimit() throws Exception {
+            when(productService.getAllPaged(any(GetAllProductsRequest.class), eq(null), eq(20)))
+                    .thenThrow(new BusinessException("Sayfalı listelemede sıralama kullanılamaz; ürünler ID sırasıyla döner."));
+
+            mockMvc.perform(get("/api/products").param("limit", "20").param("sort", "unitPrice,desc"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Sayfalı listelemede sıralama kullanılamaz; ürünler ID sırasıyla döner.")));
+        }
+
+        @Test
+        @DisplayName("Sayfalı listelemede negatif fiyat filtresi 400 döndürmeli")
+        void shouldValidateFiltersOnPagedListing() throws Exception {
+            mockMvc.perform(get("/api/products").param("limit", "20").param("minPrice", "-1"))
+                    .andExpect(status().isBadRequest());
+
+            verify(productService, never()).getAllPaged(any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Geçersiz sayfa boyutu ile 400 döndürmeli")
+        void shouldReturn400WhenLimitInvalid() throws Exception {
+            when(productService.getAllPaged(any(GetAllProductsRequest.class), eq(null), eq(0)))
+                    .thenThrow(new BusinessException("Sayfa boyutu 1 ile 100 arasında olmalıdır."));
+
+            mockMvc.perform(get("/api/products").param("limit", "0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Sayfa boyutu 1 ile 100 arasında olmalıdır.")));
+        }
+    }
+
+    // ==================== GET /api/products/search ====================
+
+    @Nested
+    @DisplayName("GET /api/products/search")
+    class Search {
+
+        @Test
+        @DisplayName("Arama ifadesi ile 200 ve sıralı sonuç sayfası döndürmeli")
+        void shouldReturnSearchResults() throws Exception {
+            SearchProductsPageResponse response = new SearchProductsPageResponse(
+                    List.of(new SearchedProductResponse(2, "Işıklı Klavye", 1500.0, "klavye.jpg", 1, "Elektronik", 2.4)),
+                    0, 20, 1, false
+            );
+            when(productService.search("klavye", 0, 20)).thenReturn(response);
+
+            mockMvc.perform(get("/api/products/search").param("q", "klavye"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].id", is(2)))
+                    .andExpect(jsonPath("$.items[0].categoryName", is("Elektronik")))
+                    .andExpect(jsonPath("$.totalCount", is(1)))
+                    .andExpect(jsonPath("$.hasNext", is(false)));
+
+            verify(productService, times(1)).search("klavye", 0, 20);
+        }
+
+        @Test
+        @DisplayName("Geçersiz arama ifadesi ile 400 döndürmeli")
+        void shouldReturn400WhenQueryInvalid() throws Exception {
+            when(productService.search("!!", 0, 20))
+                    .thenThrow(new BusinessException("Arama ifadesi en az bir harf veya rakam içermelidir."));
+
+            mockMvc.perform(get("/api/products/search").param("q", "!!"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Arama ifadesi en az bir harf veya rakam içermelidir.")));
+        }
+    }
+
+    // ==================== GET /api/products/export ====================
+
+    @Nested
+    @DisplayName("GET /api/products/export")
+    class Export {
+
+        @Test
+        @DisplayName("Ürünleri satır satır NDJSON olarak akıtmalı")
+        @SuppressWarnings("unchecked")
+        void shouldStreamProductsAsNdjson() throws Exception {
+            doAnswer(invocation -> {
+                Consumer<GetByIdProductResponse> consumer = invocation.getArgument(0);
+                consumer.accept(new GetByIdProductResponse(1, "Laptop", "İyi bir laptop", 15000.0, 10,
+                        "laptop.jpg", 1, "Elektronik", now, null, true, 0));
+                consumer.accept(new GetByIdProductResponse(2, "Telefon", "Akıllı telefon", 10000.0, 20,
+                        "telefon.jpg", 1, "Elektronik", now, null, true, 0));
+                return null;
+            }).when(productService).exportAll(any(Consumer.class));
+
+            MvcResult result = mockMvc.perform(get("/api/products/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertEquals(2, lines.length);
+            assertEquals("Laptop", objectMapper.readTree(lines[0]).get("name").asText());
+            assertEquals(2, objectMapper.readTree(lines[1]).get("id").asInt());
+            verify(productService, never()).getAll(any(GetAllProductsRequest.class));
         }
     }
 
@@ -93,12 +328,23 @@ class ProductsControllerTest {
     @DisplayName("GET /api/products/{id}")
     class GetById {
 
+        @Autowired
+        private CacheManager cacheManager;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @BeforeEach
+        void clearJsonCache() {
+            cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).clear();
+        }
+
         @Test
         @DisplayName("Mevcut ID ile 200 ve ürün döndürmeli")
         void shouldReturnProductById() throws Exception {
             GetByIdProductResponse response = new GetByIdProductResponse(
                     1, "Laptop", "İyi bir laptop", 15000.0, 10,
-                    "laptop.jpg", 1, "Elektronik", now, null, true
+                    "laptop.jpg", 1, "Elektronik", now, null, true, 0
             );
             when(productService.getById(1)).thenReturn(response);
 
@@ -130,6 +376,146 @@ class ProductsControllerTest {
 
             verify(productService, times(1)).getById(99);
         }
+
+        @Test
+        @DisplayName("Yanıtta ürünün sürümünden türetilen ETag dönmeli")
+        void shouldReturnETag() throws Exception {
+            GetByIdProductResponse response = new GetByIdProductResponse(
+                    2, "Telefon", "Akıllı telefon", 10000.0, 20,
+                    "telefon.jpg", 1, "Elektronik", now, null, true, 0
+            );
+            when(productService.getById(2)).thenReturn(response);
+            entityTagRegistry.productChanged(2, now, null);
+
+            mockMvc.perform(get("/api/products/2"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"" + entityTagRegistry.productTag(2) + "\""));
+        }
+
+        @Test
+        @DisplayName("If-None-Match güncel ETag ile eşleşirse servise gitmeden 304 döndürmeli")
+        void shouldReturn304WithoutCallingService() throws Exception {
+            entityTagRegistry.productChanged(3, now, now.plusHours(1));
+            String etag = "\"" + entityTagRegistry.productTag(3) + "\"";
+
+            mockMvc.perform(get("/api/products/3").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+
+            verify(productService, never()).getById(anyInt());
+        }
+
+        @Test
+        @DisplayName("Ürün güncellendikten sonra eski ETag ile 200 döndürmeli")
+        void shouldReturn200WhenETagIsStale() throws Exception {
+            entityTagRegistry.productChanged(4, now, null);
+            String staleETag = "\"" + entityTagRegistry.productTag(4) + "\"";
+            entityTagRegistry.productChanged(4, now, now.plusHours(1));
+            GetByIdProductResponse response = new GetByIdProductResponse(
+                    4, "Tablet", "Android tablet", 5000.0, 5,
+                    "tablet.jpg", 1, "Elektronik", now, now.plusHours(1), true, 0
+            );
+            when(productService.getById(4)).thenReturn(response);
+
+            mockMvc.perform(get("/api/products/4").header("If-None-Match", staleETag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name", is("Tablet")));
+
+            verify(productService, times(1)).getById(4);
+        }
+
+        @Test
+        @DisplayName("Aynı ETag ile ikinci istek servise gitmeden önbellekteki baytlardan dönmeli")
+        void shouldServeCachedBytesWhileETagIsCurrent() throws Exception {
+            entityTagRegistry.productChanged(5, now, null);
+            GetByIdProductResponse response = new GetByIdProductResponse(
+                    5, "Kulaklık", "Kablosuz kulaklık", 1500.0, 30,
+                    "kulaklik.jpg", 1, "Elektronik", now, null, true, 0
+            );
+            when(productService.getById(5)).thenReturn(response);
+            double servedBefore = meterRegistry.get(MetricsConfig.PRODUCT_JSON_CACHE_METRIC + ".bytes")
+                    .tag("encoding", "identity").counter().count();
+
+            String first = mockMvc.perform(get("/api/products/5"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            mockMvc.perform(get("/api/products/5"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(first))
+                    .andExpect(jsonPath("$.name", is("Kulaklık")));
+
+            verify(productService, times(1)).getById(5);
+            double servedAfter = meterRegistry.get(MetricsConfig.PRODUCT_JSON_CACHE_METRIC + ".bytes")
+                    .tag("encoding", "identity").counter().count();
+            assertEquals(first.getBytes(StandardCharsets.UTF_8).length, servedAfter - servedBefore);
+        }
+
+        @Test
+        @DisplayName("ETag değişince önbellekteki eski baytları kullanmamalı")
+        void shouldNotServeCachedBytesAfterChange() throws Exception {
+            entityTagRegistry.productChanged(6, now, null);
+            when(productService.getById(6))
+                    .thenReturn(new GetByIdProductResponse(6, "Mouse", "Kablolu", 200.0, 3, "mouse.jpg", 1, "Elektronik", now, null, true, 0))
+                    .thenReturn(new GetByIdProductResponse(6, "Mouse", "Kablolu", 200.0, 2, "mouse.jpg", 1, "Elektronik", now, null, true, 1));
+            mockMvc.perform(get("/api/products/6")).andExpect(jsonPath("$.unitsInStock", is(3)));
+
+            entityTagRegistry.productStockChanged(6);
+
+            mockMvc.perform(get("/api/products/6"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.unitsInStock", is(2)));
+            verify(productService, times(2)).getById(6);
+        }
+
+        @Test
+        @DisplayName("Accept-Encoding gzip ise önceden sıkıştırılmış gövdeyi döndürmeli")
+        void shouldServeGzipVariant() throws Exception {
+            entityTagRegistry.productChanged(7, now, null);
+            GetByIdProductResponse response = new GetByIdProductResponse(
+                    7, "Monitör", "27 inç monitör ".repeat(20), 8000.0, 8,
+                    "monitor.jpg", 1, "Elektronik", now, null, true, 0
+            );
+            when(productService.getById(7)).thenReturn(response);
+
+            String gzipETag = "\"" + entityTagRegistry.productTag(7) + "-gz\"";
+
+            byte[] body = mockMvc.perform(get("/api/products/7").header("Accept-Encoding", "br, gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Encoding", "gzip"))
+                    .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                    .andExpect(header().stringValues("ETag", gzipETag))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(json.contains("\"name\":\"Monitör\""));
+            }
+
+            mockMvc.perform(get("/api/products/7")
+                            .header("Accept-Encoding", "gzip")
+                            .header("If-None-Match", gzipETag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", gzipETag));
+            verify(productService, times(1)).getById(7);
+        }
+
+        @Test
+        @DisplayName("Accept-Encoding yoksa sıkıştırmadan döndürmeli")
+        void shouldServeIdentityWithoutAcceptEncoding() throws Exception {
+            entityTagRegistry.productChanged(8, now, null);
+            GetByIdProductResponse response = new GetByIdProductResponse(
+                    8, "Klavye", "Mekanik klavye ".repeat(20), 1200.0, 4,
+                    "klavye.jpg", 1, "Elektronik", now, null, true, 0
+            );
+            when(productService.getById(8)).thenReturn(response);
+
+            mockMvc.perform(get("/api/products/8"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(header().stringValues("ETag", "\"" + entityTagRegistry.productTag(8) + "\""))
+                    .andExpect(jsonPath("$.name", is("Klavye")));
+        }
     }
 
     // ==================== POST /api/products ====================
@@ -145,7 +531,7 @@ class ProductsControllerTest {
                     "Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1
             );
             CreatedProductResponse response = new CreatedProductResponse(
-                    1, "Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1, "Elektronik", now
+                    1, "Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1, "Elektronik", now, 0
             );
 
             when(productService.add(any(CreateProductRequest.class))).thenReturn(response);
@@ -237,6 +623,71 @@ class ProductsControllerTest {
         }
     }
 
+    // ==================== POST /api/products/bulk ====================
+
+    @Nested
+    @DisplayName("POST /api/products/bulk")
+    class AddAll {
+
+        @Test
+        @DisplayName("Geçerli liste ile 201 ve oluşturulan ürünleri döndürmeli")
+        void shouldCreateProducts() throws Exception {
+            List<CreateProductRequest> requests = List.of(
+                    new CreateProductRequest("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1),
+                    new CreateProductRequest("Telefon", "Akıllı telefon", 10000.0, 20, "telefon.jpg", 1)
+            );
+            List<CreatedProductResponse> responses = List.of(
+                    new CreatedProductResponse(1, "Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1, "Elektronik", now, 0),
+                    new CreatedProductResponse(2, "Telefon", "Akıllı telefon", 10000.0, 20, "telefon.jpg", 1, "Elektronik", now, 0)
+            );
+            when(productService.addAll(anyList())).thenReturn(responses);
+
+            mockMvc.perform(post("/api/products/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requests)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].id", is(1)))
+                    .andExpect(jsonPath("$[1].name", is("Telefon")));
+
+            verify(productService, times(1)).addAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Listede geçersiz ürün varsa 400 ve validasyon hatası döndürmeli")
+        void shouldReturn400WhenAnItemIsInvalid() throws Exception {
+            List<CreateProductRequest> requests = List.of(
+                    new CreateProductRequest("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1),
+                    new CreateProductRequest("", "Açıklama", 100.0, 5, "img.jpg", 1)
+            );
+
+            mockMvc.perform(post("/api/products/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requests)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Validasyon hatası")))
+                    .andExpect(jsonPath("$.errors['[1].name']").exists());
+
+            verify(productService, never()).addAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Mevcut ürün adları ile 400 ve iş kuralı hatası döndürmeli")
+        void shouldReturn400WhenNamesExist() throws Exception {
+            List<CreateProductRequest> requests = List.of(
+                    new CreateProductRequest("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1)
+            );
+            when(productService.addAll(anyList()))
+                    .thenThrow(new BusinessException("Bu ürün adları zaten mevcut: Laptop"));
+
+            mockMvc.perform(post("/api/products/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requests)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Bu ürün adları zaten mevcut: Laptop")));
+        }
+    }
+
     // ==================== PUT /api/products ====================
 
     @Nested
@@ -247,10 +698,10 @@ class ProductsControllerTest {
         @DisplayName("Geçerli istek ile 200 ve güncellenen ürün döndürmeli")
         void shouldUpdateProduct() throws Exception {
             UpdateProductRequest request = new UpdateProductRequest(
-                    1, "Laptop Pro", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", 1
+                    1, "Laptop Pro", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", 1, 0L
             );
             UpdatedProductResponse response = new UpdatedProductResponse(
-                    1, "Laptop Pro", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", 1, "Elektronik", now
+                    1, "Laptop Pro", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", 1, "Elektronik", now, 0
             );
 
             when(productService.update(any(UpdateProductRequest.class))).thenReturn(response);
@@ -274,7 +725,7 @@ class ProductsControllerTest {
         @DisplayName("Boş isim ile güncelleme 400 dönmeli")
         void shouldReturn400WhenUpdateNameIsBlank() throws Exception {
             UpdateProductRequest request = new UpdateProductRequest(
-                    1, "", "Açıklama", 100.0, 5, "img.jpg", 1
+                    1, "", "Açıklama", 100.0, 5, "img.jpg", 1, 0L
             );
 
             mockMvc.perform(put("/api/products")
@@ -286,11 +737,44 @@ class ProductsControllerTest {
             verify(productService, never()).update(any(UpdateProductRequest.class));
         }
 
+        @Test
+        @DisplayName("Sürüm gönderilmezse 400 dönmeli")
+        void shouldReturn400WhenVersionMissing() throws Exception {
+            UpdateProductRequest request = new UpdateProductRequest(
+                    1, "Laptop Pro", "Açıklama", 100.0, 5, "img.jpg", 1, null
+            );
+
+            mockMvc.perform(put("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors.version", is("Sürüm boş olamaz.")));
+
+            verify(productService, never()).update(any(UpdateProductRequest.class));
+        }
+
+        @Test
+        @DisplayName("Başka bir kullanıcı ürünü değiştirdiyse 409 dönmeli")
+        void shouldReturn409OnOptimisticLockFailure() throws Exception {
+            UpdateProductRequest request = new UpdateProductRequest(
+                    1, "Laptop Pro", "Açıklama", 100.0, 5, "img.jpg", 1, 2L
+            );
+            when(productService.update(any(UpdateProductRequest.class)))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1));
+
+            mockMvc.perform(put("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status", is(409)))
+                    .andExpect(jsonPath("$.message", is("Kayıt siz düzenlerken başka bir kullanıcı tarafından değiştirildi. Güncel halini yükleyip tekrar deneyin.")));
+        }
+
         @Test
         @DisplayName("Mevcut olmayan ürün güncellenirken 400 dönmeli")
         void shouldReturn400WhenUpdatingNonExistentProduct() throws Exception {
             UpdateProductRequest request = new UpdateProductRequest(
-                    99, "Test", "Açıklama", 100.0, 5, "img.jpg", 1
+                    99, "Test", "Açıklama", 100.0, 5, "img.jpg", 1, 0L
             );
 
             when(productService.update(any(UpdateProductRequest.class)))
@@ -307,7 +791,7 @@ class ProductsControllerTest {
         @DisplayName("Güncelleme sırasında isim çakışması ile 400 dönmeli")
         void shouldReturn400WhenUpdatingWithDuplicateName() throws Exception {
             UpdateProductRequest request = new UpdateProductRequest(
-                    1, "Telefon", "Açıklama", 100.0, 5, "img.jpg", 1
+                    1, "Telefon", "Açıklama", 100.0, 5, "img.jpg", 1, 0L
             );
 
             when(productService.update(any(UpdateProductRequest.class)))
@@ -321,6 +805,66 @@ class ProductsControllerTest {
         }
     }
 
+    // ==================== POST /api/products/{id}/stock/reserve ====================
+
+    @Nested
+    @DisplayName("POST /api/products/{id}/stock/reserve")
+    class ReserveStock {
+
+        @Test
+        @DisplayName("Rezervasyon başarılıysa 200 ve reserved=true döndürmeli")
+        void shouldReserveStock() throws Exception {
+            when(productService.reserveStock(eq(1), any(ReserveStockRequest.class)))
+                    .thenReturn(new ReservedStockResponse(1, 2, true));
+
+            mockMvc.perform(post("/api/products/1/stock/reserve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReserveStockRequest(2))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.productId", is(1)))
+                    .andExpect(jsonPath("$.quantity", is(2)))
+                    .andExpect(jsonPath("$.reserved", is(true)));
+        }
+
+        @Test
+        @DisplayName("Stok yetersizse 200 ve reserved=false döndürmeli")
+        void shouldReturnNotReserved() throws Exception {
+            when(productService.reserveStock(eq(1), any(ReserveStockRequest.class)))
+                    .thenReturn(new ReservedStockResponse(1, 50, false));
+
+            mockMvc.perform(post("/api/products/1/stock/reserve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReserveStockRequest(50))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reserved", is(false)));
+        }
+
+        @Test
+        @DisplayName("Adet 1'den küçükse 400 dönmeli")
+        void shouldReturn400WhenQuantityIsNotPositive() throws Exception {
+            mockMvc.perform(post("/api/products/1/stock/reserve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReserveStockRequest(0))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors.quantity", is("Rezerve edilecek adet en az 1 olmalıdır.")));
+
+            verify(productService, never()).reserveStock(anyInt(), any(ReserveStockRequest.class));
+        }
+
+        @Test
+        @DisplayName("Mevcut olmayan ürün için 400 dönmeli")
+        void shouldReturn400WhenProductNotFound() throws Exception {
+            when(productService.reserveStock(eq(99), any(ReserveStockRequest.class)))
+                    .thenThrow(new BusinessException("Ürün bulunamadı. ID: 99"));
+
+            mockMvc.perform(post("/api/products/99/stock/reserve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReserveStockRequest(1))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Ürün bulunamadı. ID: 99")));
+        }
+    }
+
     // ==================== DELETE /api/products/{id} ====================
 
     @Nested
@@ -354,4 +898,80 @@ class ProductsControllerTest {
             verify(productService, times(1)).delete(99);
         }
     }
+
+    // ==================== Hata metrikleri ====================
+
+    @Nested
+    @DisplayName("Hata metrikleri")
+    class ErrorMetrics {
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        private double errorCount(String type) {
+            Counter counter = meterRegistry.find(MetricsConfig.ERRORS_METRIC).tag("type", type).counter();
+            return counter != null ? counter.count() : 0;
+        }
+
+        @Test
+        @DisplayName("İş kuralı hatası business tipinde sayılmalı")
+        void shouldCountBusinessErrors() throws Exception {
+            double before = errorCount("business");
+            when(productService.getById(99))
+                    .thenThrow(new BusinessException("Ürün bulunamadı. ID: 99"));
+
+            mockMvc.perform(get("/api/products/99"))
+                    .andExpect(status().isBadRequest());
+
+            assertEquals(before + 1, errorCount("business"));
+        }
+
+        @Test
+        @DisplayName("Validasyon hatası validation tipinde sayılmalı")
+        void shouldCountValidationErrors() throws Exception {
+            double before = errorCount("validation");
+            CreateProductRequest request = new CreateProductRequest(
+                    "", "Açıklama", 100.0, 5, "img.jpg", 1
+            );
+
+            mockMvc.perform(post("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+
+            assertEquals(before + 1, errorCount("validation"));
+        }
+    }
+
+    // ==================== POST /api/products/{id}/restore ====================
+
+    @Nested
+    @DisplayName("POST /api/products/{id}/restore")
+    class Restore {
+
+        @Test
+        @DisplayName("Silinmiş ürün geri alınınca 200 ve yeni sürümü döndürmeli")
+        void shouldRestoreProduct() throws Exception {
+            when(productService.restore(1)).thenReturn(new RestoredProductResponse(1, "Laptop", 2));
+
+            mockMvc.perform(post("/api/products/1/restore"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(1)))
+                    .andExpect(jsonPath("$.name", is("Laptop")))
+                    .andExpect(jsonPath("$.version", is(2)));
+
+            verify(productService, times(1)).restore(1);
+        }
+
+        @Test
+        @DisplayName("Kategorisi silinmiş ürün için 400 döndürmeli")
+        void shouldReturn400WhenCategoryDeleted() throws Exception {
+            when(productService.restore(1))
+                    .thenThrow(new BusinessException("Ürünün kategorisi silinmiş, önce kategori geri alınmalıdır. ID: 1"));
+
+            mockMvc.perform(post("/api/products/1/restore"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Ürünün kategorisi silinmiş, önce kategori geri alınmalıdır. ID: 1")));
+        }
+    }
 }
@@ -1,7 +1,9 @@
 package com.turkcell.etradebackend10.business.concretes;
 
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
 import com.turkcell.etradebackend10.business.rules.CategoryBusinessRules;
+import com.turkcell.etradebackend10.business.search.ProductSearchIndex;
 import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
 import com.turkcell.etradebackend10.entities.concretes.Category;
 import com.turkcell.etradebackend10.entities.dtos.requests.category.CreateCategoryRequest;
@@ -14,12 +16,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +48,18 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryBusinessRules categoryBusinessRules;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private EntityTagRegistry entityTagRegistry;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -58,10 +84,10 @@ class CategoryServiceImplTest {
         @Test
         @DisplayName("Kategoriler varsa listeyi döndürmeli")
         void shouldReturnAllCategories() {
-            Category category2 = new Category("Giyim", "Giyim ürünleri");
-            category2.setId(2);
-
-            when(categoryRepository.findAll()).thenReturn(List.of(category, category2));
+            when(categoryRepository.findAllCategoryResponses()).thenReturn(List.of(
+                    new GetAllCategoriesResponse(1, "Elektronik"),
+                    new GetAllCategoriesResponse(2, "Giyim")
+            ));
 
             List<GetAllCategoriesResponse> result = categoryService.getAll();
 
@@ -70,18 +96,145 @@ class CategoryServiceImplTest {
             assertEquals(1, result.get(0).getId());
             assertEquals("Giyim", result.get(1).getName());
             assertEquals(2, result.get(1).getId());
-            verify(categoryRepository, times(1)).findAll();
+            verify(categoryRepository, times(1)).findAllCategoryResponses();
+            verify(categoryRepository, never()).findAll();
         }
 
         @Test
         @DisplayName("Kategori yoksa boş liste döndürmeli")
         void shouldReturnEmptyListWhenNoCategories() {
-            when(categoryRepository.findAll()).thenReturn(Collections.emptyList());
+            when(categoryRepository.findAllCategoryResponses()).thenReturn(Collections.emptyList());
 
             List<GetAllCategoriesResponse> result = categoryService.getAll();
 
             assertTrue(result.isEmpty());
-            verify(categoryRepository, times(1)).findAll();
+            verify(categoryRepository, times(1)).findAllCategoryResponses();
+        }
+    }
+
+    @Nested
+    @DisplayName("getAllWithCounts testleri")
+    class GetAllWithCounts {
+
+        @Test
+        @DisplayName("Sayıları gruplanmış sorgudan döndürmeli")
+        void shouldReturnCountsFromGroupedQuery() {
+            when(categoryRepository.findAllCategoryResponsesWithCounts()).thenReturn(List.of(
+                    new GetAllCategoriesResponse(1, "Elektronik", 12L, 9L)
+            ));
+
+            List<GetAllCategoriesResponse> result = categoryService.getAllWithCounts();
+
+            assertEquals(1, result.size());
+            assertEquals(12L, result.get(0).getProductCount());
+            assertEquals(9L, result.get(0).getInStockCount());
+            verify(categoryRepository, never()).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("getAllSnapshot testleri")
+    class GetAllSnapshot {
+
+        @Test
+        @DisplayName("Listeyi bir kez okuyup serileştirmeli, sonraki çağrılarda aynı kopyayı döndürmeli")
+        void shouldBuildSnapshotOnce() {
+            when(entityTagRegistry.categoriesTag()).thenReturn("c-1");
+            when(categoryRepository.findAllCategoryResponses()).thenReturn(List.of(new GetAllCategoriesResponse(1, "Elektronik")));
+
+            GetAllCategoriesSnapshot first = categoryService.getAllSnapshot();
+            GetAllCategoriesSnapshot second = categoryService.getAllSnapshot();
+
+            assertSame(first, second);
+            assertEquals("c-1", first.getEtag());
+            assertEquals("[{\"id\":1,\"name\":\"Elektronik\"}]", new String(first.getJson(), StandardCharsets.UTF_8));
+            verify(categoryRepository, times(1)).findAllCategoryResponses();
+        }
+
+        @Test
+        @DisplayName("Eşzamanlı ilk okumalarda listeyi tek sorguyla kurmalı")
+        void shouldBuildSnapshotOnceUnderConcurrentColdReads() throws Exception {
+            when(entityTagRegistry.categoriesTag()).thenReturn("c-1");
+            when(categoryRepository.findAllCategoryResponses()).thenAnswer(invocation -> {
+                Thread.sleep(50);
+                return List.of(new GetAllCategoriesResponse(1, "Elektronik"));
+            });
+
+            List<Future<GetAllCategoriesSnapshot>> results = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 16; i++) {
+                    results.add(executor.submit(categoryService::getAllSnapshot));
+                }
+            }
+
+            GetAllCategoriesSnapshot first = results.get(0).get();
+            for (Future<GetAllCategoriesSnapshot> result : results) {
+                assertSame(first, result.get());
+            }
+            verify(categoryRepository, times(1)).findAllCategoryResponses();
+        }
+
+        @Test
+        @DisplayName("Sıkıştırılmış gövdeyi kurulumda bir kez hazırlamalı, küçük listede boş bırakmalı")
+        void shouldPrecomputeGzipWhenSmaller() throws IOException {
+            List<GetAllCategoriesResponse> categories = new ArrayList<>();
+            for (int id = 1; id <= 50; id++) {
+                categories.add(new GetAllCategoriesResponse(id, "Kategori " + id));
+            }
+            when(entityTagRegistry.categoriesTag()).thenReturn("c-1");
+            when(categoryRepository.findAllCategoryResponses()).thenReturn(categories);
+
+            GetAllCategoriesSnapshot snapshot = categoryService.getAllSnapshot();
+
+            assertNotNull(snapshot.getGzip());
+            assertTrue(snapshot.getGzip().length < snapshot.getJson().length);
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+                assertArrayEquals(snapshot.getJson(), gzip.readAllBytes());
+            }
+        }
+
+        @Test
+        @DisplayName("Boş listede sıkıştırılmış gövde olmamalı")
+        void shouldSkipGzipForTinyList() {
+            when(entityTagRegistry.categoriesTag()).thenReturn("c-1");
+            when(categoryRepository.findAllCategoryResponses()).thenReturn(List.of());
+
+            assertNull(categoryService.getAllSnapshot().getGzip());
+        }
+
+        @Test
+        @DisplayName("Kategori eklendikten sonra yeni listeyle yeniden kurulmalı")
+        void shouldRebuildAfterWrite() {
+            when(entityTagRegistry.categoriesTag()).thenReturn("c-1", "c-2");
+            when(categoryRepository.findAllCategoryResponses())
+                    .thenReturn(List.of(new GetAllCategoriesResponse(1, "Elektronik")))
+                    .thenReturn(List.of(new GetAllCategoriesResponse(1, "Elektronik"), new GetAllCategoriesResponse(2, "Giyim")));
+            when(categoryBusinessRules.saveIfCategoryNameUnique(any(Category.class))).thenReturn(category);
+            categoryService.getAllSnapshot();
+
+            categoryService.add(new CreateCategoryRequest("Giyim", "Giyim ürünleri"));
+            GetAllCategoriesSnapshot rebuilt = categoryService.getAllSnapshot();
+
+            assertEquals(2, rebuilt.getCategories().size());
+            assertEquals("c-2", rebuilt.getEtag());
+            verify(categoryRepository, times(2)).findAllCategoryResponses();
+        }
+
+        @Test
+        @DisplayName("Yeniden kurma başarısız olursa yazma başarılı dönmeli ve sonraki okuma listeyi kurmalı")
+        void shouldRebuildOnNextReadWhenRefreshFails() {
+            when(entityTagRegistry.categoriesTag()).thenReturn("c-1");
+            when(categoryRepository.findAllCategoryResponses())
+                    .thenReturn(List.of(new GetAllCategoriesResponse(1, "Elektronik")))
+                    .thenThrow(new DataAccessResourceFailureException("db down"))
+                    .thenReturn(List.of(new GetAllCategoriesResponse(1, "Elektronik"), new GetAllCategoriesResponse(2, "Giyim")));
+            when(categoryBusinessRules.saveIfCategoryNameUnique(any(Category.class))).thenReturn(category);
+            categoryService.getAllSnapshot();
+
+            assertDoesNotThrow(() -> categoryService.add(new CreateCategoryRequest("Giyim", "Giyim ürünleri")));
+
+            assertEquals(2, categoryService.getAllSnapshot().getCategories().size());
+            verify(categoryRepository, times(3)).findAllCategoryResponses();
         }
     }
 
@@ -95,8 +248,7 @@ class CategoryServiceImplTest {
         @DisplayName("Mevcut ID ile kategori döndürmeli")
         void shouldReturnCategoryWhenExists() {
             category.setUpdatedDate(now.plusHours(1));
-            doNothing().when(categoryBusinessRules).checkIfCategoryExistsById(1);
-            when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+            when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
 
             GetByIdCategoryResponse result = categoryService.getById(1);
 
@@ -106,20 +258,19 @@ class CategoryServiceImplTest {
             assertEquals(now, result.getCreatedDate());
             assertEquals(now.plusHours(1), result.getUpdatedDate());
             assertTrue(result.isActive());
-            verify(categoryBusinessRules, times(1)).checkIfCategoryExistsById(1);
-            verify(categoryRepository, times(1)).findById(1);
+            verify(categoryBusinessRules, times(1)).getCategoryIfExists(1);
         }
 
         @Test
         @DisplayName("Mevcut olmayan ID ile BusinessException fırlatmalı")
         void shouldThrowWhenCategoryDoesNotExist() {
             doThrow(new BusinessException("Kategori bulunamadı. ID: 99"))
-                    .when(categoryBusinessRules).checkIfCategoryExistsById(99);
+                    .when(categoryBusinessRules).getCategoryIfExists(99);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> categoryService.getById(99));
             assertEquals("Kategori bulunamadı. ID: 99", exception.getMessage());
-            verify(categoryBusinessRules, times(1)).checkIfCategoryExistsById(99);
+            verify(categoryBusinessRules, times(1)).getCategoryIfExists(99);
             verify(categoryRepository, never()).findById(anyInt());
         }
     }
@@ -135,8 +286,7 @@ class CategoryServiceImplTest {
         void shouldAddCategorySuccessfully() {
             CreateCategoryRequest request = new CreateCategoryRequest("Elektronik", "Elektronik ürünler");
 
-            doNothing().when(categoryBusinessRules).checkIfCategoryNameAlreadyExists("Elektronik");
-            when(categoryRepository.save(any(Category.class))).thenReturn(category);
+            when(categoryBusinessRules.saveIfCategoryNameUnique(any(Category.class))).thenReturn(category);
 
             CreatedCategoryResponse result = categoryService.add(request);
 
@@ -145,8 +295,8 @@ class CategoryServiceImplTest {
             assertEquals("Elektronik", result.getName());
             assertEquals("Elektronik ürünler", result.getDescription());
             assertEquals(now, result.getCreatedDate());
-            verify(categoryBusinessRules, times(1)).checkIfCategoryNameAlreadyExists("Elektronik");
-            verify(categoryRepository, times(1)).save(any(Category.class));
+            verify(categoryBusinessRules, times(1)).saveIfCategoryNameUnique(any(Category.class));
+            verify(entityTagRegistry, times(1)).categoriesChanged();
         }
 
         @Test
@@ -154,13 +304,13 @@ class CategoryServiceImplTest {
         void shouldThrowWhenCategoryNameAlreadyExists() {
             CreateCategoryRequest request = new CreateCategoryRequest("Elektronik", "Elektronik ürünler");
 
-            doThrow(new BusinessException("Bu kategori adı zaten mevcut: Elektronik"))
-                    .when(categoryBusinessRules).checkIfCategoryNameAlreadyExists("Elektronik");
+            when(categoryBusinessRules.saveIfCategoryNameUnique(any(Category.class)))
+                    .thenThrow(new BusinessException("Bu kategori adı zaten mevcut: Elektronik"));
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> categoryService.add(request));
             assertEquals("Bu kategori adı zaten mevcut: Elektronik", exception.getMessage());
-            verify(categoryRepository, never()).save(any(Category.class));
+            verify(entityTagRegistry, never()).categoriesChanged();
         }
     }
 
@@ -173,16 +323,14 @@ class CategoryServiceImplTest {
         @Test
         @DisplayName("Geçerli istek ile kategori güncellemeli")
         void shouldUpdateCategorySuccessfully() {
-            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Elektronik Güncellendi", "Yeni açıklama");
+            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Elektronik Güncellendi", "Yeni açıklama", 0L);
 
             Category updatedCategory = new Category("Elektronik Güncellendi", "Yeni açıklama");
             updatedCategory.setId(1);
             updatedCategory.setUpdatedDate(now.plusHours(1));
 
-            doNothing().when(categoryBusinessRules).checkIfCategoryExistsById(1);
-            doNothing().when(categoryBusinessRules).checkIfCategoryNameAlreadyExistsForUpdate(1, "Elektronik Güncellendi");
-            when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
-            when(categoryRepository.save(any(Category.class))).thenReturn(updatedCategory);
+            when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
+            when(categoryBusinessRules.saveIfCategoryNameUniqueForUpdate(any(Category.class))).thenReturn(updatedCategory);
 
             UpdatedCategoryResponse result = categoryService.update(request);
 
@@ -191,39 +339,53 @@ class CategoryServiceImplTest {
             assertEquals("Elektronik Güncellendi", result.getName());
             assertEquals("Yeni açıklama", result.getDescription());
             assertEquals(now.plusHours(1), result.getUpdatedDate());
-            verify(categoryBusinessRules, times(1)).checkIfCategoryExistsById(1);
-            verify(categoryBusinessRules, times(1)).checkIfCategoryNameAlreadyExistsForUpdate(1, "Elektronik Güncellendi");
-            verify(categoryRepository, times(1)).findById(1);
-            verify(categoryRepository, times(1)).save(any(Category.class));
+            verify(categoryBusinessRules, times(1)).getCategoryIfExists(1);
+            verify(categoryBusinessRules, times(1)).saveIfCategoryNameUniqueForUpdate(any(Category.class));
+            verify(productSearchIndex, times(1)).renameCategory(1, "Elektronik Güncellendi");
+            verify(entityTagRegistry, times(1)).categoriesChanged();
+        }
+
+        @Test
+        @DisplayName("Eski sürümle güncelleme kaydedilmeden reddedilmeli")
+        void shouldRejectStaleVersion() {
+            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Elektronik Güncellendi", "Yeni açıklama", 0L);
+
+            when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
+            doThrow(new ObjectOptimisticLockingFailureException(Category.class, 1))
+                    .when(categoryBusinessRules).checkIfCategoryVersionMatches(category, 0L);
+
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> categoryService.update(request));
+            verify(categoryBusinessRules, never()).saveIfCategoryNameUniqueForUpdate(any(Category.class));
+            verify(entityTagRegistry, never()).categoriesChanged();
         }
 
         @Test
         @DisplayName("Mevcut olmayan kategori güncellenirken BusinessException fırlatmalı")
         void shouldThrowWhenUpdatingNonExistentCategory() {
-            UpdateCategoryRequest request = new UpdateCategoryRequest(99, "Test", "Test desc");
+            UpdateCategoryRequest request = new UpdateCategoryRequest(99, "Test", "Test desc", 0L);
 
             doThrow(new BusinessException("Kategori bulunamadı. ID: 99"))
-                    .when(categoryBusinessRules).checkIfCategoryExistsById(99);
+                    .when(categoryBusinessRules).getCategoryIfExists(99);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> categoryService.update(request));
             assertEquals("Kategori bulunamadı. ID: 99", exception.getMessage());
-            verify(categoryRepository, never()).save(any(Category.class));
+            verify(categoryBusinessRules, never()).saveIfCategoryNameUniqueForUpdate(any(Category.class));
         }
 
         @Test
         @DisplayName("Güncelleme sırasında aynı isim başka kategoride varsa BusinessException fırlatmalı")
         void shouldThrowWhenUpdatingWithDuplicateName() {
-            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Giyim", "Açıklama");
+            UpdateCategoryRequest request = new UpdateCategoryRequest(1, "Giyim", "Açıklama", 0L);
 
-            doNothing().when(categoryBusinessRules).checkIfCategoryExistsById(1);
-            doThrow(new BusinessException("Bu kategori adı zaten başka bir kategoriye ait: Giyim"))
-                    .when(categoryBusinessRules).checkIfCategoryNameAlreadyExistsForUpdate(1, "Giyim");
+            when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
+            when(categoryBusinessRules.saveIfCategoryNameUniqueForUpdate(any(Category.class)))
+                    .thenThrow(new BusinessException("Bu kategori adı zaten başka bir kategoriye ait: Giyim"));
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> categoryService.update(request));
             assertEquals("Bu kategori adı zaten başka bir kategoriye ait: Giyim", exception.getMessage());
-            verify(categoryRepository, never()).save(any(Category.class));
+            verify(productSearchIndex, never()).renameCategory(anyInt(), any());
         }
     }
 
@@ -234,33 +396,87 @@ class CategoryServiceImplTest {
     class Delete {
 
         @Test
-        @DisplayName("Mevcut kategori silinmeli")
+        @DisplayName("Mevcut kategori pasife alınmalı, satır silinmemeli")
         void shouldDeleteCategorySuccessfully() {
-            doNothing().when(categoryBusinessRules).checkIfCategoryExistsById(1);
-            when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
-            doNothing().when(categoryRepository).delete(category);
+            when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
 
             DeletedCategoryResponse result = categoryService.delete(1);
 
             assertNotNull(result);
             assertEquals(1, result.getId());
             assertEquals("Elektronik", result.getName());
-            verify(categoryBusinessRules, times(1)).checkIfCategoryExistsById(1);
-            verify(categoryRepository, times(1)).findById(1);
-            verify(categoryRepository, times(1)).delete(category);
+            assertFalse(category.isActive());
+            assertNotNull(category.getDeletedDate());
+            verify(categoryBusinessRules, times(1)).getCategoryIfExists(1);
+            verify(categoryBusinessRules, times(1)).checkIfCategoryHasNoActiveProducts(1);
+            verify(categoryRepository, times(1)).save(category);
+            verify(categoryRepository, never()).delete(any(Category.class));
+            verify(entityTagRegistry, times(1)).categoriesChanged();
+        }
+
+        @Test
+        @DisplayName("Aktif ürünü olan kategori silinmemeli")
+        void shouldNotDeleteCategoryWithActiveProducts() {
+            when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
+            doThrow(new BusinessException("Kategoriye ait aktif ürünler varken kategori silinemez. ID: 1"))
+                    .when(categoryBusinessRules).checkIfCategoryHasNoActiveProducts(1);
+
+            assertThrows(BusinessException.class, () -> categoryService.delete(1));
+
+            assertTrue(category.isActive());
+            verify(categoryRepository, never()).save(any(Category.class));
+            verify(entityTagRegistry, never()).categoriesChanged();
         }
 
         @Test
         @DisplayName("Mevcut olmayan kategori silinirken BusinessException fırlatmalı")
         void shouldThrowWhenDeletingNonExistentCategory() {
             doThrow(new BusinessException("Kategori bulunamadı. ID: 99"))
-                    .when(categoryBusinessRules).checkIfCategoryExistsById(99);
+                    .when(categoryBusinessRules).getCategoryIfExists(99);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> categoryService.delete(99));
             assertEquals("Kategori bulunamadı. ID: 99", exception.getMessage());
             verify(categoryRepository, never()).findById(anyInt());
-            verify(categoryRepository, never()).delete(any(Category.class));
+            verify(categoryRepository, never()).save(any(Category.class));
+        }
+    }
+
+    // ==================== restore ====================
+
+    @Nested
+    @DisplayName("restore testleri")
+    class Restore {
+
+        @Test
+        @DisplayName("Silinmiş kategori geri alınmalı ve liste yeniden kurulmalı")
+        void shouldRestoreCategory() {
+            category.setVersion(2);
+            when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
+            when(entityTagRegistry.categoriesTag()).thenReturn("c-2");
+            when(categoryRepository.findAllCategoryResponses()).thenReturn(List.of(new GetAllCategoriesResponse(1, "Elektronik")));
+
+            RestoredCategoryResponse result = categoryService.restore(1);
+
+            assertEquals(1, result.getId());
+            assertEquals("Elektronik", result.getName());
+            assertEquals(2, result.getVersion());
+            verify(categoryBusinessRules, times(1)).checkIfCategoryCanBeRestored(1);
+            verify(categoryRepository, times(1)).restore(eq(1), any(LocalDateTime.class));
+            verify(entityTagRegistry, times(1)).categoriesChanged();
+            assertEquals("c-2", categoryService.getAllSnapshot().getEtag());
+        }
+
+        @Test
+        @DisplayName("Geri alınamayan kategori için güncelleme yapılmamalı")
+        void shouldNotRestoreWhenRuleFails() {
+            doThrow(new BusinessException("Silinmiş kategori bulunamadı. ID: 99"))
+                    .when(categoryBusinessRules).checkIfCategoryCanBeRestored(99);
+
+            assertThrows(BusinessException.class, () -> categoryService.restore(99));
+
+            verify(categoryRepository, never()).restore(anyInt(), any());
+            verify(entityTagRegistry, never()).categoriesChanged();
         }
     }
 }
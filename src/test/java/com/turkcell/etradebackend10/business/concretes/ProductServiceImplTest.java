@@ -1,31 +1,49 @@
 package com.turkcell.etradebackend10.business.concretes;
 
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
 import com.turkcell.etradebackend10.business.rules.ProductBusinessRules;
+import com.turkcell.etradebackend10.business.rules.ProductNameFilter;
+import com.turkcell.etradebackend10.business.search.ProductSearchIndex;
+import com.turkcell.etradebackend10.business.stock.StockLedger;
+import com.turkcell.etradebackend10.config.CacheConfig;
 import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
 import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
 import com.turkcell.etradebackend10.entities.concretes.Category;
 import com.turkcell.etradebackend10.entities.concretes.Product;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.CreateProductRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.ReserveStockRequest;
 import com.turkcell.etradebackend10.entities.dtos.requests.product.UpdateProductRequest;
 import com.turkcell.etradebackend10.entities.dtos.responses.product.*;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +58,24 @@ class ProductServiceImplTest {
     @Mock
     private ProductBusinessRules productBusinessRules;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductNameFilter productNameFilter;
+
+    @Mock
+    private EntityTagRegistry entityTagRegistry;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -67,55 +103,190 @@ class ProductServiceImplTest {
     class GetAll {
 
         @Test
-        @DisplayName("Ürünler varsa listeyi döndürmeli")
+        @DisplayName("Filtre yoksa projeksiyon sorgusundan gelen tüm listeyi döndürmeli")
         void shouldReturnAllProducts() {
-            Product product2 = new Product("Telefon", "Akıllı telefon", 10000.0, 20, "telefon.jpg", category);
-            product2.setId(2);
-
-            when(productRepository.findAll()).thenReturn(List.of(product, product2));
+            GetAllProductsRequest request = new GetAllProductsRequest();
+            List<GetAllProductsResponse> responses = List.of(
+                    new GetAllProductsResponse(1, "Laptop", 15000.0, 10, "laptop.jpg", 1, "Elektronik"),
+                    new GetAllProductsResponse(2, "Telefon", 10000.0, 20, "telefon.jpg", 1, "Elektronik")
+            );
+            when(productBusinessRules.getSortIfValid(null)).thenReturn(Sort.unsorted());
+            when(productRepository.findProductResponses(request, Sort.unsorted())).thenReturn(responses);
 
-            List<GetAllProductsResponse> result = productService.getAll();
+            List<GetAllProductsResponse> result = productService.getAll(request);
 
             assertEquals(2, result.size());
             assertEquals("Laptop", result.get(0).getName());
             assertEquals(1, result.get(0).getId());
-            assertEquals(15000.0, result.get(0).getUnitPrice());
-            assertEquals(10, result.get(0).getUnitsInStock());
-            assertEquals("laptop.jpg", result.get(0).getImageUrl());
             assertEquals(1, result.get(0).getCategoryId());
             assertEquals("Elektronik", result.get(0).getCategoryName());
-
             assertEquals("Telefon", result.get(1).getName());
-            assertEquals(2, result.get(1).getId());
-            verify(productRepository, times(1)).findAll();
+            verify(productRepository, times(1)).findProductResponses(request, Sort.unsorted());
+            verify(productRepository, never()).findAll();
         }
 
         @Test
         @DisplayName("Ürün yoksa boş liste döndürmeli")
         void shouldReturnEmptyListWhenNoProducts() {
-            when(productRepository.findAll()).thenReturn(Collections.emptyList());
+            GetAllProductsRequest request = new GetAllProductsRequest();
+            when(productBusinessRules.getSortIfValid(null)).thenReturn(Sort.unsorted());
+            when(productRepository.findProductResponses(request, Sort.unsorted())).thenReturn(Collections.emptyList());
 
-            List<GetAllProductsResponse> result = productService.getAll();
+            List<GetAllProductsResponse> result = productService.getAll(request);
 
             assertTrue(result.isEmpty());
-            verify(productRepository, times(1)).findAll();
+        }
+    }
+
+    // ==================== getAll(filter) ====================
+
+    @Nested
+    @DisplayName("getAll(filter) testleri")
+    class GetAllFiltered {
+
+        @Test
+        @DisplayName("Filtre ve doğrulanmış sıralama ile dinamik sorguyu çağırmalı")
+        void shouldQueryWithFilterAndSort() {
+            GetAllProductsRequest request = new GetAllProductsRequest(1, 10.0, 100.0, true, "unitPrice,desc");
+            Sort sort = Sort.by(Sort.Direction.DESC, "unitPrice");
+            List<GetAllProductsResponse> responses = List.of(
+                    new GetAllProductsResponse(2, "Telefon", 90.0, 20, "telefon.jpg", 1, "Elektronik"));
+            when(productBusinessRules.getSortIfValid("unitPrice,desc")).thenReturn(sort);
+            when(productRepository.findProductResponses(request, sort)).thenReturn(responses);
+
+            List<GetAllProductsResponse> result = productService.getAll(request);
+
+            assertEquals(responses, result);
+            verify(productBusinessRules).checkIfPriceRangeValid(10.0, 100.0);
+        }
+
+        @Test
+        @DisplayName("Fiyat aralığı geçersizse sorgu çalıştırmamalı")
+        void shouldThrowWhenPriceRangeInvalid() {
+            GetAllProductsRequest request = new GetAllProductsRequest(null, 100.0, 10.0, null, null);
+            doThrow(new BusinessException("Minimum fiyat maksimum fiyattan büyük olamaz."))
+                    .when(productBusinessRules).checkIfPriceRangeValid(100.0, 10.0);
+
+            assertThrows(BusinessException.class, () -> productService.getAll(request));
+            verify(productRepository, never()).findProductResponses(any(), any());
+        }
+    }
+
+    // ==================== getAllPaged ====================
+
+    @Nested
+    @DisplayName("getAllPaged testleri")
+    class GetAllPaged {
+
+        @Test
+        @DisplayName("İmleç yoksa ilk sayfayı ve sonraki imleci döndürmeli")
+        void shouldReturnFirstPageWithNextCursor() {
+            GetAllProductsRequest request = new GetAllProductsRequest();
+            when(productRepository.findProductResponsesAfter(request, 0, Limit.of(3))).thenReturn(List.of(
+                    new GetAllProductsResponse(1, "Laptop", 15000.0, 10, "laptop.jpg", 1, "Elektronik"),
+                    new GetAllProductsResponse(2, "Telefon", 10000.0, 20, "telefon.jpg", 1, "Elektronik"),
+                    new GetAllProductsResponse(3, "Tablet", 8000.0, 5, "tablet.jpg", 1, "Elektronik")
+            ));
+
+            GetAllProductsPageResponse result = productService.getAllPaged(request, null, 2);
+
+            assertEquals(2, result.getItems().size());
+            assertEquals("Laptop", result.getItems().get(0).getName());
+            assertEquals("Telefon", result.getItems().get(1).getName());
+            assertTrue(result.isHasNext());
+            assertNotNull(result.getNextCursor());
+            verify(productBusinessRules, times(1)).checkIfPageLimitValid(2);
         }
 
         @Test
-        @DisplayName("Kategorisi null olan ürünler için kategori bilgisi set edilmemeli")
-        void shouldHandleProductWithNullCategory() {
-            Product productWithoutCategory = new Product("Ürün", "Açıklama", 100.0, 5, "img.jpg", null);
-            productWithoutCategory.setId(3);
+        @DisplayName("Dönen imleç ile bir sonraki sayfa istenmeli")
+        void shouldContinueFromReturnedCursor() {
+            GetAllProductsResponse first = new GetAllProductsResponse(1, "Laptop", 15000.0, 10, "laptop.jpg", 1, "Elektronik");
+            GetAllProductsResponse second = new GetAllProductsResponse(2, "Telefon", 10000.0, 20, "telefon.jpg", 1, "Elektronik");
+
+            GetAllProductsRequest request = new GetAllProductsRequest();
+
+            when(productRepository.findProductResponsesAfter(request, 0, Limit.of(2))).thenReturn(List.of(first, second));
+            String cursor = productService.getAllPaged(request, null, 1).getNextCursor();
 
-            when(productRepository.findAll()).thenReturn(List.of(productWithoutCategory));
+            when(productRepository.findProductResponsesAfter(request, 1, Limit.of(2))).thenReturn(List.of(second));
+            GetAllProductsPageResponse result = productService.getAllPaged(request, cursor, 1);
 
-            List<GetAllProductsResponse> result = productService.getAll();
+            assertEquals(1, result.getItems().size());
+            assertEquals(2, result.getItems().get(0).getId());
+            assertFalse(result.isHasNext());
+            assertNull(result.getNextCursor());
+        }
 
-            assertEquals(1, result.size());
-            assertEquals("Ürün", result.get(0).getName());
-            assertEquals(0, result.get(0).getCategoryId());
-            assertNull(result.get(0).getCategoryName());
-            verify(productRepository, times(1)).findAll();
+        @Test
+        @DisplayName("Geçersiz imleç ile BusinessException fırlatmalı")
+        void shouldThrowWhenCursorIsInvalid() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.getAllPaged(new GetAllProductsRequest(), "%%%", 10));
+            assertEquals("Geçersiz sayfa imleci: %%%", exception.getMessage());
+            verify(productRepository, never()).findProductResponsesAfter(any(), anyInt(), any(Limit.class));
+        }
+
+        @Test
+        @DisplayName("Filtreler sayfa sorgusuna aktarılmalı ve doğrulanmalı")
+        void shouldPassFiltersToKeysetQuery() {
+            GetAllProductsRequest request = new GetAllProductsRequest(1, 10.0, 100.0, true, null);
+            when(productRepository.findProductResponsesAfter(request, 0, Limit.of(21))).thenReturn(List.of(
+                    new GetAllProductsResponse(2, "Telefon", 90.0, 20, "telefon.jpg", 1, "Elektronik")));
+
+            GetAllProductsPageResponse result = productService.getAllPaged(request, null, 20);
+
+            assertEquals(1, result.getItems().size());
+            assertFalse(result.isHasNext());
+            verify(productBusinessRules).checkIfPriceRangeValid(10.0, 100.0);
+            verify(productBusinessRules).checkIfSortNotRequestedForPaging(null);
+        }
+
+        @Test
+        @DisplayName("Sıralama istenirse sorgu çalıştırmadan BusinessException fırlatmalı")
+        void shouldRejectSort() {
+            GetAllProductsRequest request = new GetAllProductsRequest(null, null, null, null, "unitPrice,desc");
+            doThrow(new BusinessException("Sayfalı listelemede sıralama kullanılamaz; ürünler ID sırasıyla döner."))
+                    .when(productBusinessRules).checkIfSortNotRequestedForPaging("unitPrice,desc");
+
+            assertThrows(BusinessException.class, () -> productService.getAllPaged(request, null, 20));
+            verify(productRepository, never()).findProductResponsesAfter(any(), anyInt(), any(Limit.class));
+        }
+    }
+
+    // ==================== search ====================
+
+    @Nested
+    @DisplayName("search testleri")
+    class Search {
+
+        @Test
+        @DisplayName("Kurallar geçerse aramayı indekse devretmeli")
+        void shouldDelegateToSearchIndex() {
+            SearchProductsPageResponse page = new SearchProductsPageResponse(
+                    List.of(new SearchedProductResponse(1, "Laptop", 15000.0, "laptop.jpg", 1, "Elektronik", 1.5)),
+                    0, 20, 1, false);
+            when(productSearchIndex.search("laptop", 0, 20)).thenReturn(page);
+
+            SearchProductsPageResponse result = productService.search("laptop", 0, 20);
+
+            assertSame(page, result);
+            verify(productBusinessRules, times(1)).checkIfSearchQueryValid("laptop");
+            verify(productBusinessRules, times(1)).checkIfPageNumberValid(0);
+            verify(productBusinessRules, times(1)).checkIfPageLimitValid(20);
+            verify(productRepository, never()).findAll();
+        }
+
+        @Test
+        @DisplayName("Geçersiz arama ifadesinde indekse gitmemeli")
+        void shouldNotSearchWhenQueryIsInvalid() {
+            doThrow(new BusinessException("Arama ifadesi en az bir harf veya rakam içermelidir."))
+                    .when(productBusinessRules).checkIfSearchQueryValid("  ");
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.search("  ", 0, 20));
+            assertEquals("Arama ifadesi en az bir harf veya rakam içermelidir.", exception.getMessage());
+            verify(productSearchIndex, never()).search(any(), anyInt(), anyInt());
         }
     }
 
@@ -129,8 +300,7 @@ class ProductServiceImplTest {
         @DisplayName("Mevcut ID ile ürün döndürmeli")
         void shouldReturnProductWhenExists() {
             product.setUpdatedDate(now.plusHours(1));
-            doNothing().when(productBusinessRules).checkIfProductExistsById(1);
-            when(productRepository.findById(1)).thenReturn(Optional.of(product));
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
 
             GetByIdProductResponse result = productService.getById(1);
 
@@ -145,8 +315,7 @@ class ProductServiceImplTest {
             assertEquals(now, result.getCreatedDate());
             assertEquals(now.plusHours(1), result.getUpdatedDate());
             assertTrue(result.isActive());
-            verify(productBusinessRules, times(1)).checkIfProductExistsById(1);
-            verify(productRepository, times(1)).findById(1);
+            verify(productBusinessRules, times(1)).getProductIfExists(1);
         }
 
         @Test
@@ -157,8 +326,7 @@ class ProductServiceImplTest {
             productNoCategory.setCreatedDate(now);
             productNoCategory.setActive(true);
 
-            doNothing().when(productBusinessRules).checkIfProductExistsById(5);
-            when(productRepository.findById(5)).thenReturn(Optional.of(productNoCategory));
+            when(productBusinessRules.getProductIfExists(5)).thenReturn(productNoCategory);
 
             GetByIdProductResponse result = productService.getById(5);
 
@@ -172,16 +340,53 @@ class ProductServiceImplTest {
         @DisplayName("Mevcut olmayan ID ile BusinessException fırlatmalı")
         void shouldThrowWhenProductDoesNotExist() {
             doThrow(new BusinessException("Ürün bulunamadı. ID: 99"))
-                    .when(productBusinessRules).checkIfProductExistsById(99);
+                    .when(productBusinessRules).getProductIfExists(99);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> productService.getById(99));
             assertEquals("Ürün bulunamadı. ID: 99", exception.getMessage());
-            verify(productBusinessRules, times(1)).checkIfProductExistsById(99);
+            verify(productBusinessRules, times(1)).getProductIfExists(99);
             verify(productRepository, never()).findById(anyInt());
         }
     }
 
+    // ==================== exportAll ====================
+
+    @Nested
+    @DisplayName("exportAll testleri")
+    class ExportAll {
+
+        @Test
+        @DisplayName("Akıştaki her ürünü sırayla tüketiciye iletmeli ve ayırmalı")
+        void shouldPassEveryProductToConsumer() {
+            Product product2 = new Product("Telefon", "Akıllı telefon", 10000.0, 20, "telefon.jpg", category);
+            product2.setId(2);
+            when(productRepository.streamAllForExport()).thenReturn(Stream.of(product, product2));
+
+            List<GetByIdProductResponse> exported = new ArrayList<>();
+            productService.exportAll(exported::add);
+
+            assertEquals(2, exported.size());
+            assertEquals("Laptop", exported.get(0).getName());
+            assertEquals("İyi bir laptop", exported.get(0).getDescription());
+            assertEquals("Elektronik", exported.get(0).getCategoryName());
+            assertEquals(2, exported.get(1).getId());
+            verify(entityManager, times(1)).detach(product);
+            verify(entityManager, times(1)).detach(product2);
+        }
+
+        @Test
+        @DisplayName("Ürün yoksa tüketici çağrılmamalı")
+        void shouldNotCallConsumerWhenNoProducts() {
+            when(productRepository.streamAllForExport()).thenReturn(Stream.empty());
+
+            List<GetByIdProductResponse> exported = new ArrayList<>();
+            productService.exportAll(exported::add);
+
+            assertTrue(exported.isEmpty());
+        }
+    }
+
     // ==================== add ====================
 
     @Nested
@@ -193,10 +398,9 @@ class ProductServiceImplTest {
         void shouldAddProductSuccessfully() {
             CreateProductRequest request = new CreateProductRequest("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1);
 
-            doNothing().when(productBusinessRules).checkIfProductNameAlreadyExists("Laptop");
             doNothing().when(productBusinessRules).checkIfUnitPriceValid(15000.0);
             when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
-            when(productRepository.save(any(Product.class))).thenReturn(product);
+            when(productBusinessRules.saveIfProductNameUnique(any(Product.class))).thenReturn(product);
 
             CreatedProductResponse result = productService.add(request);
 
@@ -210,10 +414,12 @@ class ProductServiceImplTest {
             assertEquals(1, result.getCategoryId());
             assertEquals("Elektronik", result.getCategoryName());
             assertEquals(now, result.getCreatedDate());
-            verify(productBusinessRules, times(1)).checkIfProductNameAlreadyExists("Laptop");
             verify(productBusinessRules, times(1)).checkIfUnitPriceValid(15000.0);
             verify(categoryRepository, times(1)).findById(1);
-            verify(productRepository, times(1)).save(any(Product.class));
+            verify(productBusinessRules, times(1)).saveIfProductNameUnique(any(Product.class));
+            verify(productSearchIndex, times(1)).index(any(GetByIdProductResponse.class));
+            verify(productNameFilter, times(1)).add("Laptop");
+            verify(entityTagRegistry, times(1)).productChanged(1, now, null);
         }
 
         @Test
@@ -221,13 +427,15 @@ class ProductServiceImplTest {
         void shouldThrowWhenProductNameExists() {
             CreateProductRequest request = new CreateProductRequest("Laptop", "Desc", 100.0, 5, "img.jpg", 1);
 
-            doThrow(new BusinessException("Bu ürün adı zaten mevcut: Laptop"))
-                    .when(productBusinessRules).checkIfProductNameAlreadyExists("Laptop");
+            when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+            when(productBusinessRules.saveIfProductNameUnique(any(Product.class)))
+                    .thenThrow(new BusinessException("Bu ürün adı zaten mevcut: Laptop"));
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> productService.add(request));
             assertEquals("Bu ürün adı zaten mevcut: Laptop", exception.getMessage());
-            verify(productRepository, never()).save(any(Product.class));
+            verify(productSearchIndex, never()).index(any(GetByIdProductResponse.class));
+            verify(productNameFilter, never()).add(any());
         }
 
         @Test
@@ -235,14 +443,13 @@ class ProductServiceImplTest {
         void shouldThrowWhenPriceIsNegative() {
             CreateProductRequest request = new CreateProductRequest("Yeni Ürün", "Desc", -10.0, 5, "img.jpg", 1);
 
-            doNothing().when(productBusinessRules).checkIfProductNameAlreadyExists("Yeni Ürün");
             doThrow(new BusinessException("Birim fiyat 0'dan küçük olamaz."))
                     .when(productBusinessRules).checkIfUnitPriceValid(-10.0);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> productService.add(request));
             assertEquals("Birim fiyat 0'dan küçük olamaz.", exception.getMessage());
-            verify(productRepository, never()).save(any(Product.class));
+            verify(productBusinessRules, never()).saveIfProductNameUnique(any(Product.class));
         }
 
         @Test
@@ -250,14 +457,83 @@ class ProductServiceImplTest {
         void shouldThrowWhenCategoryDoesNotExist() {
             CreateProductRequest request = new CreateProductRequest("Yeni Ürün", "Desc", 100.0, 5, "img.jpg", 99);
 
-            doNothing().when(productBusinessRules).checkIfProductNameAlreadyExists("Yeni Ürün");
             doNothing().when(productBusinessRules).checkIfUnitPriceValid(100.0);
             when(categoryRepository.findById(99)).thenReturn(Optional.empty());
 
             RuntimeException exception = assertThrows(RuntimeException.class,
                     () -> productService.add(request));
             assertEquals("Kategori bulunamadı. ID: 99", exception.getMessage());
-            verify(productRepository, never()).save(any(Product.class));
+            verify(productBusinessRules, never()).saveIfProductNameUnique(any(Product.class));
+        }
+    }
+
+    // ==================== addAll ====================
+
+    @Nested
+    @DisplayName("addAll testleri")
+    class AddAll {
+
+        @Test
+        @DisplayName("Kategorileri tek sorguda çözüp ürünleri toplu kaydetmeli")
+        @SuppressWarnings("unchecked")
+        void shouldAddProductsInBulk() {
+            List<CreateProductRequest> requests = List.of(
+                    new CreateProductRequest("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1),
+                    new CreateProductRequest("Telefon", "Akıllı telefon", 10000.0, 20, "telefon.jpg", 1)
+            );
+            when(categoryRepository.findAllById(List.of(1))).thenReturn(List.of(category));
+            when(productBusinessRules.saveAllIfProductNamesUnique(anyList())).thenAnswer(invocation -> {
+                List<Product> products = invocation.getArgument(0);
+                for (int i = 0; i < products.size(); i++) {
+                    products.get(i).setId(i + 1);
+                }
+                return products;
+            });
+
+            List<CreatedProductResponse> result = productService.addAll(requests);
+
+            assertEquals(2, result.size());
+            assertEquals(1, result.get(0).getId());
+            assertEquals("Telefon", result.get(1).getName());
+            assertEquals("Elektronik", result.get(1).getCategoryName());
+            verify(productBusinessRules, times(1)).checkIfBulkSizeValid(2);
+            verify(productBusinessRules, times(1)).checkIfProductNamesAlreadyExist(List.of("Laptop", "Telefon"));
+            verify(categoryRepository, times(1)).findAllById(List.of(1));
+            verify(categoryRepository, never()).findById(anyInt());
+            verify(productBusinessRules, times(1)).saveAllIfProductNamesUnique(anyList());
+            verify(productBusinessRules, never()).saveIfProductNameUnique(any(Product.class));
+            verify(productSearchIndex, times(2)).index(any(GetByIdProductResponse.class));
+            verify(productNameFilter, times(1)).add("Laptop");
+            verify(productNameFilter, times(1)).add("Telefon");
+        }
+
+        @Test
+        @DisplayName("Mevcut olmayan kategori ID ile BusinessException fırlatmalı")
+        void shouldThrowWhenCategoryDoesNotExist() {
+            List<CreateProductRequest> requests = List.of(
+                    new CreateProductRequest("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1),
+                    new CreateProductRequest("Telefon", "Akıllı telefon", 10000.0, 20, "telefon.jpg", 99)
+            );
+            when(categoryRepository.findAllById(List.of(1, 99))).thenReturn(List.of(category));
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.addAll(requests));
+            assertEquals("Kategori bulunamadı. ID: 99", exception.getMessage());
+            verify(productBusinessRules, never()).saveAllIfProductNamesUnique(anyList());
+        }
+
+        @Test
+        @DisplayName("Mevcut ürün adları varsa hiçbir ürün kaydedilmemeli")
+        void shouldThrowWhenNamesExist() {
+            List<CreateProductRequest> requests = List.of(
+                    new CreateProductRequest("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", 1)
+            );
+            doThrow(new BusinessException("Bu ürün adları zaten mevcut: Laptop"))
+                    .when(productBusinessRules).checkIfProductNamesAlreadyExist(List.of("Laptop"));
+
+            assertThrows(BusinessException.class, () -> productService.addAll(requests));
+            verify(categoryRepository, never()).findAllById(anyList());
+            verify(productBusinessRules, never()).saveAllIfProductNamesUnique(anyList());
         }
     }
 
@@ -270,18 +546,16 @@ class ProductServiceImplTest {
         @Test
         @DisplayName("Geçerli istek ile ürün güncellemeli")
         void shouldUpdateProductSuccessfully() {
-            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop Pro", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", 1);
+            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop Pro", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", 1, 0L);
 
             Product updatedProduct = new Product("Laptop Pro", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", category);
             updatedProduct.setId(1);
             updatedProduct.setUpdatedDate(now.plusHours(1));
 
-            doNothing().when(productBusinessRules).checkIfProductExistsById(1);
-            doNothing().when(productBusinessRules).checkIfProductNameAlreadyExistsForUpdate(1, "Laptop Pro");
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
             doNothing().when(productBusinessRules).checkIfUnitPriceValid(20000.0);
-            when(productRepository.findById(1)).thenReturn(Optional.of(product));
             when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
-            when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+            when(productBusinessRules.saveIfProductNameUniqueForUpdate(any(Product.class))).thenReturn(updatedProduct);
 
             UpdatedProductResponse result = productService.update(request);
 
@@ -295,71 +569,169 @@ class ProductServiceImplTest {
             assertEquals(1, result.getCategoryId());
             assertEquals("Elektronik", result.getCategoryName());
             assertEquals(now.plusHours(1), result.getUpdatedDate());
-            verify(productBusinessRules, times(1)).checkIfProductExistsById(1);
-            verify(productBusinessRules, times(1)).checkIfProductNameAlreadyExistsForUpdate(1, "Laptop Pro");
+            verify(productBusinessRules, times(1)).getProductIfExists(1);
+            verify(productBusinessRules, times(1)).saveIfProductNameUniqueForUpdate(any(Product.class));
             verify(productBusinessRules, times(1)).checkIfUnitPriceValid(20000.0);
+            verify(productSearchIndex, times(1)).index(argThat(indexed -> indexed.getName().equals("Laptop Pro")));
+            verify(productNameFilter, times(1)).add("Laptop Pro");
+            verify(productNameFilter, times(1)).remove("Laptop");
+            verify(entityTagRegistry, times(1)).productChanged(1, null, now.plusHours(1));
+            verify(stockLedger, times(1)).stockChanged(1, 10, 15);
+        }
+
+        @Test
+        @DisplayName("İsim değişmediğinde isim filtresine dokunmamalı")
+        void shouldKeepNameFilterWhenNameUnchanged() {
+            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop", "Güncellenmiş laptop", 20000.0, 15, "laptop2.jpg", 1, 0L);
+
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
+            when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+            when(productBusinessRules.saveIfProductNameUniqueForUpdate(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            productService.update(request);
+
+            verify(productNameFilter, never()).add(any());
+            verify(productNameFilter, never()).remove(any());
+        }
+
+        @Test
+        @DisplayName("Eski sürümle güncelleme kaydedilmeden reddedilmeli")
+        void shouldRejectStaleVersion() {
+            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop Pro", "Desc", 100.0, 5, "img.jpg", 1, 0L);
+
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
+            doThrow(new ObjectOptimisticLockingFailureException(Product.class, 1))
+                    .when(productBusinessRules).checkIfProductVersionMatches(product, 0L);
+
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> productService.update(request));
+            verify(productBusinessRules, never()).saveIfProductNameUniqueForUpdate(any(Product.class));
+            verify(productSearchIndex, never()).index(any(GetByIdProductResponse.class));
         }
 
         @Test
         @DisplayName("Mevcut olmayan ürün güncellenirken BusinessException fırlatmalı")
         void shouldThrowWhenUpdatingNonExistentProduct() {
-            UpdateProductRequest request = new UpdateProductRequest(99, "Test", "Desc", 100.0, 5, "img.jpg", 1);
+            UpdateProductRequest request = new UpdateProductRequest(99, "Test", "Desc", 100.0, 5, "img.jpg", 1, 0L);
 
             doThrow(new BusinessException("Ürün bulunamadı. ID: 99"))
-                    .when(productBusinessRules).checkIfProductExistsById(99);
+                    .when(productBusinessRules).getProductIfExists(99);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> productService.update(request));
             assertEquals("Ürün bulunamadı. ID: 99", exception.getMessage());
-            verify(productRepository, never()).save(any(Product.class));
+            verify(productBusinessRules, never()).saveIfProductNameUniqueForUpdate(any(Product.class));
         }
 
         @Test
         @DisplayName("Güncelleme sırasında aynı isim başka üründe varsa BusinessException fırlatmalı")
         void shouldThrowWhenUpdatingWithDuplicateName() {
-            UpdateProductRequest request = new UpdateProductRequest(1, "Telefon", "Desc", 100.0, 5, "img.jpg", 1);
+            UpdateProductRequest request = new UpdateProductRequest(1, "Telefon", "Desc", 100.0, 5, "img.jpg", 1, 0L);
 
-            doNothing().when(productBusinessRules).checkIfProductExistsById(1);
-            doThrow(new BusinessException("Bu ürün adı zaten başka bir ürüne ait: Telefon"))
-                    .when(productBusinessRules).checkIfProductNameAlreadyExistsForUpdate(1, "Telefon");
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
+            when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+            when(productBusinessRules.saveIfProductNameUniqueForUpdate(any(Product.class)))
+                    .thenThrow(new BusinessException("Bu ürün adı zaten başka bir ürüne ait: Telefon"));
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> productService.update(request));
             assertEquals("Bu ürün adı zaten başka bir ürüne ait: Telefon", exception.getMessage());
-            verify(productRepository, never()).save(any(Product.class));
+            verify(productSearchIndex, never()).index(any(GetByIdProductResponse.class));
         }
 
         @Test
         @DisplayName("Güncelleme sırasında negatif fiyat ile BusinessException fırlatmalı")
         void shouldThrowWhenUpdatingWithNegativePrice() {
-            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop", "Desc", -5.0, 5, "img.jpg", 1);
+            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop", "Desc", -5.0, 5, "img.jpg", 1, 0L);
 
-            doNothing().when(productBusinessRules).checkIfProductExistsById(1);
-            doNothing().when(productBusinessRules).checkIfProductNameAlreadyExistsForUpdate(1, "Laptop");
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
             doThrow(new BusinessException("Birim fiyat 0'dan küçük olamaz."))
                     .when(productBusinessRules).checkIfUnitPriceValid(-5.0);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> productService.update(request));
             assertEquals("Birim fiyat 0'dan küçük olamaz.", exception.getMessage());
-            verify(productRepository, never()).save(any(Product.class));
+            verify(productBusinessRules, never()).saveIfProductNameUniqueForUpdate(any(Product.class));
         }
 
         @Test
         @DisplayName("Güncelleme sırasında mevcut olmayan kategori ile RuntimeException fırlatmalı")
         void shouldThrowWhenUpdatingWithNonExistentCategory() {
-            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop", "Desc", 100.0, 5, "img.jpg", 99);
+            UpdateProductRequest request = new UpdateProductRequest(1, "Laptop", "Desc", 100.0, 5, "img.jpg", 99, 0L);
 
-            doNothing().when(productBusinessRules).checkIfProductExistsById(1);
-            doNothing().when(productBusinessRules).checkIfProductNameAlreadyExistsForUpdate(1, "Laptop");
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
             doNothing().when(productBusinessRules).checkIfUnitPriceValid(100.0);
-            when(productRepository.findById(1)).thenReturn(Optional.of(product));
             when(categoryRepository.findById(99)).thenReturn(Optional.empty());
 
             RuntimeException exception = assertThrows(RuntimeException.class,
                     () -> productService.update(request));
             assertEquals("Kategori bulunamadı. ID: 99", exception.getMessage());
-            verify(productRepository, never()).save(any(Product.class));
+            verify(productBusinessRules, never()).saveIfProductNameUniqueForUpdate(any(Product.class));
+        }
+    }
+
+    // ==================== reserveStock ====================
+
+    @Nested
+    @DisplayName("reserveStock testleri")
+    class ReserveStock {
+
+        @Test
+        @DisplayName("Stok yeterliyse ürünü yüklemeden rezerve etmeli")
+        void shouldReserveWithoutLoadingProduct() {
+            Cache productCache = mock(Cache.class);
+            Cache jsonCache = mock(Cache.class);
+            when(productRepository.reserveStock(1, 3)).thenReturn(1);
+            when(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE)).thenReturn(productCache);
+            when(cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE)).thenReturn(jsonCache);
+
+            ReservedStockResponse result = productService.reserveStock(1, new ReserveStockRequest(3));
+
+            assertTrue(result.isReserved());
+            assertEquals(1, result.getProductId());
+            assertEquals(3, result.getQuantity());
+            verify(productRepository, never()).findById(anyInt());
+            verify(productBusinessRules, never()).checkIfProductExists(anyInt());
+            verify(entityTagRegistry, times(1)).productStockChanged(1);
+            verify(productCache, times(1)).evict(1);
+            verify(jsonCache, times(1)).evict(1);
+        }
+
+        @Test
+        @DisplayName("Stok yetersizse reserved=false döndürmeli")
+        void shouldReturnNotReservedWhenStockIsInsufficient() {
+            when(productRepository.reserveStock(1, 30)).thenReturn(0);
+
+            ReservedStockResponse result = productService.reserveStock(1, new ReserveStockRequest(30));
+
+            assertFalse(result.isReserved());
+            verify(productBusinessRules, times(1)).checkIfProductExists(1);
+            verify(entityTagRegistry, never()).productStockChanged(anyInt());
+        }
+
+        @Test
+        @DisplayName("Ürün yoksa BusinessException fırlatmalı")
+        void shouldThrowWhenProductDoesNotExist() {
+            when(productRepository.reserveStock(99, 1)).thenReturn(0);
+            doThrow(new BusinessException("Ürün bulunamadı. ID: 99"))
+                    .when(productBusinessRules).checkIfProductExists(99);
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productService.reserveStock(99, new ReserveStockRequest(1)));
+            assertEquals("Ürün bulunamadı. ID: 99", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Stok defterindeki ürün veritabanına gitmeden rezerve edilmeli")
+        void shouldReserveFromStockLedgerForHotProducts() {
+            when(stockLedger.tracks(1)).thenReturn(true);
+            when(stockLedger.reserve(1, 2)).thenReturn(true);
+
+            ReservedStockResponse result = productService.reserveStock(1, new ReserveStockRequest(2));
+
+            assertTrue(result.isReserved());
+            verify(productRepository, never()).reserveStock(anyInt(), anyInt());
+            verify(entityTagRegistry, never()).productStockChanged(anyInt());
+            verify(cacheManager, never()).getCache(anyString());
         }
     }
 
@@ -370,33 +742,78 @@ class ProductServiceImplTest {
     class Delete {
 
         @Test
-        @DisplayName("Mevcut ürün silinmeli")
+        @DisplayName("Mevcut ürün pasife alınmalı, satır silinmemeli")
         void shouldDeleteProductSuccessfully() {
-            doNothing().when(productBusinessRules).checkIfProductExistsById(1);
-            when(productRepository.findById(1)).thenReturn(Optional.of(product));
-            doNothing().when(productRepository).delete(product);
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
 
             DeletedProductResponse result = productService.delete(1);
 
             assertNotNull(result);
             assertEquals(1, result.getId());
             assertEquals("Laptop", result.getName());
-            verify(productBusinessRules, times(1)).checkIfProductExistsById(1);
-            verify(productRepository, times(1)).findById(1);
-            verify(productRepository, times(1)).delete(product);
+            assertFalse(product.isActive());
+            assertNotNull(product.getDeletedDate());
+            verify(productBusinessRules, times(1)).getProductIfExists(1);
+            verify(productRepository, times(1)).save(product);
+            verify(productRepository, never()).delete(any(Product.class));
+            verify(productSearchIndex, times(1)).remove(1);
+            // The name stays reserved by uk_products_name until the row is purged.
+            verify(productNameFilter, never()).remove(anyString());
+            verify(entityTagRegistry, times(1)).productRemoved(1);
+            verify(stockLedger, times(1)).productRemoved(1);
         }
 
         @Test
         @DisplayName("Mevcut olmayan ürün silinirken BusinessException fırlatmalı")
         void shouldThrowWhenDeletingNonExistentProduct() {
             doThrow(new BusinessException("Ürün bulunamadı. ID: 99"))
-                    .when(productBusinessRules).checkIfProductExistsById(99);
+                    .when(productBusinessRules).getProductIfExists(99);
 
             BusinessException exception = assertThrows(BusinessException.class,
                     () -> productService.delete(99));
             assertEquals("Ürün bulunamadı. ID: 99", exception.getMessage());
             verify(productRepository, never()).findById(anyInt());
-            verify(productRepository, never()).delete(any(Product.class));
+            verify(productRepository, never()).save(any(Product.class));
+            verify(productSearchIndex, never()).remove(anyInt());
+        }
+    }
+
+    // ==================== restore ====================
+
+    @Nested
+    @DisplayName("restore testleri")
+    class Restore {
+
+        @Test
+        @DisplayName("Silinmiş ürün geri alınmalı, arama indeksi ve ETag güncellenmeli")
+        void shouldRestoreProduct() {
+            product.setVersion(4);
+            when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
+
+            RestoredProductResponse result = productService.restore(1);
+
+            assertEquals(1, result.getId());
+            assertEquals("Laptop", result.getName());
+            assertEquals(4, result.getVersion());
+            InOrder inOrder = inOrder(productBusinessRules, productRepository);
+            inOrder.verify(productBusinessRules).checkIfProductCanBeRestored(1);
+            inOrder.verify(productRepository).restore(eq(1), any(LocalDateTime.class));
+            inOrder.verify(productBusinessRules).getProductIfExists(1);
+            verify(productSearchIndex, times(1)).index(any(GetByIdProductResponse.class));
+            verify(entityTagRegistry, times(1)).productChanged(eq(1), any(), any());
+        }
+
+        @Test
+        @DisplayName("Geri alınamayan ürün için güncelleme yapılmamalı")
+        void shouldNotRestoreWhenRuleFails() {
+            doThrow(new BusinessException("Silinmiş ürün bulunamadı. ID: 99"))
+                    .when(productBusinessRules).checkIfProductCanBeRestored(99);
+
+            BusinessException exception = assertThrows(BusinessException.class, () -> productService.restore(99));
+
+            assertEquals("Silinmiş ürün bulunamadı. ID: 99", exception.getMessage());
+            verify(productRepository, never()).restore(anyInt(), any());
+            verify(productSearchIndex, never()).index(any());
         }
     }
 }
@@ -0,0 +1,70 @@
+package com.turkcell.etradebackend10.business.encoding;
+
+import com.turkcell.etradebackend10.config.CacheConfig;
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductJsonCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProductJsonCache(new ConcurrentMapCacheManager(CacheConfig.PRODUCT_JSON_CACHE),
+                JsonMapper.builder().build(), meterRegistry);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get(MetricsConfig.PRODUCT_JSON_CACHE_METRIC).tag("outcome", outcome).counter().count();
+    }
+
+    private static GetByIdProductResponse response(String description) {
+        return new GetByIdProductResponse(1, "Laptop", description, 15000.0, 10,
+                "laptop.jpg", 1, "Elektronik", null, null, true, 0);
+    }
+
+    @Nested
+    @DisplayName("get/put testleri")
+    class GetPut {
+
+        @Test
+        @DisplayName("Aynı ETag ile kaydedilen baytları döndürmeli")
+        void shouldReturnBytesForSameETag() {
+            EncodedJson stored = cache.put(1, "p1-a", response("İyi bir laptop"));
+
+            assertSame(stored, cache.get(1, "p1-a"));
+            assertTrue(new String(stored.getJson(), StandardCharsets.UTF_8).contains("\"name\":\"Laptop\""));
+            assertEquals(1, outcome("hit"));
+        }
+
+        @Test
+        @DisplayName("ETag farklıysa veya kayıt yoksa null döndürmeli")
+        void shouldMissForOtherETag() {
+            cache.put(1, "p1-a", response("İyi bir laptop"));
+
+            assertNull(cache.get(1, "p1-b"));
+            assertNull(cache.get(2, "p2-a"));
+            assertEquals(2, outcome("miss"));
+        }
+
+        @Test
+        @DisplayName("gzip varyantını yalnızca daha küçükse tutmalı")
+        void shouldKeepGzipOnlyWhenSmaller() {
+            assertNotNull(cache.put(1, "p1-a", response("Uzun açıklama ".repeat(40))).getGzip());
+            assertNull(EncodedJson.of("{}".getBytes(StandardCharsets.UTF_8), "p2-a").getGzip());
+        }
+    }
+}
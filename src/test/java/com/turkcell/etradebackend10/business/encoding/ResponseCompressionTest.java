@@ -0,0 +1,83 @@
+package com.turkcell.etradebackend10.business.encoding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCompressionTest {
+
+    @Nested
+    @DisplayName("acceptsGzip testleri")
+    class AcceptsGzip {
+
+        @Test
+        @DisplayName("gzip veya * içeren başlığı kabul etmeli")
+        void shouldAcceptGzipAndWildcard() {
+            assertTrue(ResponseCompression.acceptsGzip("gzip"));
+            assertTrue(ResponseCompression.acceptsGzip("br, GZIP;q=0.8"));
+            assertTrue(ResponseCompression.acceptsGzip("*"));
+        }
+
+        @Test
+        @DisplayName("Başlık yoksa, gzip yoksa veya q=0 ise reddetmeli")
+        void shouldRejectMissingOrRefusedGzip() {
+            assertFalse(ResponseCompression.acceptsGzip(null));
+            assertFalse(ResponseCompression.acceptsGzip("br, deflate"));
+            assertFalse(ResponseCompression.acceptsGzip("gzip;q=0"));
+            assertFalse(ResponseCompression.acceptsGzip("identity, *;q=0"));
+        }
+    }
+
+    @Nested
+    @DisplayName("matchedTag testleri")
+    class MatchedTag {
+
+        @Test
+        @DisplayName("If-None-Match düz veya gzip etiketini içeriyorsa o etiketi döndürmeli")
+        void shouldReturnTheNamedVariant() {
+            assertEquals("p1-a", ResponseCompression.matchedTag("\"p1-a\"", "p1-a"));
+            assertEquals("p1-a-gz", ResponseCompression.matchedTag("\"x\", W/\"p1-a-gz\"", "p1-a"));
+            assertEquals("p1-a", ResponseCompression.matchedTag("*", "p1-a"));
+        }
+
+        @Test
+        @DisplayName("Başlık yoksa veya etiketler eşleşmiyorsa null döndürmeli")
+        void shouldReturnNullWithoutMatch() {
+            assertNull(ResponseCompression.matchedTag(null, "p1-a"));
+            assertNull(ResponseCompression.matchedTag("\"p1-b\", \"p1-b-gz\"", "p1-a"));
+            assertNull(ResponseCompression.matchedTag("\"p1-a\"", null));
+        }
+    }
+
+    @Nested
+    @DisplayName("gzip testleri")
+    class Gzip {
+
+        @Test
+        @DisplayName("Sıkıştırılan gövde açıldığında aynı baytları vermeli")
+        void shouldRoundTrip() throws IOException {
+            byte[] body = "{\"name\":\"Ürün\"}".repeat(50).getBytes(StandardCharsets.UTF_8);
+
+            byte[] compressed = ResponseCompression.gzip(body);
+
+            assertTrue(compressed.length < body.length);
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                assertArrayEquals(body, gzip.readAllBytes());
+            }
+        }
+
+        @Test
+        @DisplayName("gzipIfSmaller küçülmeyen gövde için null döndürmeli")
+        void shouldSkipBodiesThatDoNotShrink() {
+            assertNull(ResponseCompression.gzipIfSmaller("{}".getBytes(StandardCharsets.UTF_8)));
+            assertNotNull(ResponseCompression.gzipIfSmaller("{\"name\":\"Ürün\"}".repeat(50).getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+}
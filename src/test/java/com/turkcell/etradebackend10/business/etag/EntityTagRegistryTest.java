@@ -0,0 +1,121 @@
+package com.turkcell.etradebackend10.business.etag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagRegistryTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 2, 19, 12, 0, 0);
+
+    private EntityTagRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new EntityTagRegistry();
+        registry.rebuildProducts(Map.of(1, now));
+    }
+
+    @Nested
+    @DisplayName("productTag testleri")
+    class ProductTag {
+
+        @Test
+        @DisplayName("Bilinmeyen ürün için null döndürmeli")
+        void shouldReturnNullForUnknownProduct() {
+            assertNull(registry.productTag(99));
+        }
+
+        @Test
+        @DisplayName("Kayıtlı sürüm ile yanıttan türetilen ETag aynı olmalı")
+        void shouldMatchTagDerivedFromDates() {
+            assertEquals(registry.productTag(1, now, null), registry.productTag(1));
+        }
+
+        @Test
+        @DisplayName("Ürün güncellenince ETag değişmeli")
+        void shouldChangeWhenProductUpdated() {
+            String before = registry.productTag(1);
+
+            registry.productChanged(1, now, now.plusNanos(1_000));
+
+            assertNotEquals(before, registry.productTag(1));
+            assertEquals(registry.productTag(1, now, now.plusNanos(1_000)), registry.productTag(1));
+        }
+
+        @Test
+        @DisplayName("Kategoriler değişince ürün ETag'i de değişmeli")
+        void shouldChangeWhenCategoriesChanged() {
+            String before = registry.productTag(1);
+
+            registry.categoriesChanged();
+
+            assertNotEquals(before, registry.productTag(1));
+        }
+
+        @Test
+        @DisplayName("Stok değişince ETag değişmeli")
+        void shouldChangeWhenStockChanged() {
+            String before = registry.productTag(1);
+
+            registry.productStockChanged(1);
+            String afterFirst = registry.productTag(1);
+            registry.productStockChanged(1);
+
+            assertNotEquals(before, afterFirst);
+            assertNotEquals(afterFirst, registry.productTag(1));
+        }
+
+        @Test
+        @DisplayName("Silinen ürün için null döndürmeli")
+        void shouldForgetRemovedProduct() {
+            registry.productRemoved(1);
+
+            assertNull(registry.productTag(1));
+        }
+
+        @Test
+        @DisplayName("Transaction içindeki değişiklik commit sonrasına ertelenmeli")
+        void shouldApplyChangesAfterCommit() {
+            String before = registry.productTag(1);
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                registry.productChanged(1, now, now.plusHours(1));
+                assertEquals(before, registry.productTag(1));
+
+                List<TransactionSynchronization> synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertEquals(registry.productTag(1, now, now.plusHours(1)), registry.productTag(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("categoriesTag testleri")
+    class CategoriesTag {
+
+        @Test
+        @DisplayName("Kategori değişikliği olmadan aynı kalmalı, değişiklikten sonra farklılaşmalı")
+        void shouldChangeOnlyWhenCategoriesChanged() {
+            String before = registry.categoriesTag();
+            assertEquals(before, registry.categoriesTag());
+
+            registry.categoriesChanged();
+
+            assertNotEquals(before, registry.categoriesTag());
+        }
+    }
+}
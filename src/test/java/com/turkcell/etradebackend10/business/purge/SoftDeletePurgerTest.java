@@ -0,0 +1,133 @@
+package com.turkcell.etradebackend10.business.purge;
+
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.config.SchedulingConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeletePurgerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SoftDeletePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purger = new SoftDeletePurger(Duration.ofDays(30), 100, productRepository, categoryRepository, meterRegistry);
+    }
+
+    private ApplicationContextRunner contextRunner() {
+        // The Boot conversion service reads "30d" / "10ms" as a Duration, as it does in the application.
+        return new ApplicationContextRunner()
+                .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withUserConfiguration(SchedulingConfig.class, SoftDeletePurger.class)
+                .withBean(ProductRepository.class, () -> productRepository)
+                .withBean(CategoryRepository.class, () -> categoryRepository)
+                .withBean(MeterRegistry.class, () -> meterRegistry);
+    }
+
+    private double purged(String entity) {
+        return meterRegistry.get(MetricsConfig.PURGE_METRIC).tag("entity", entity).counter().count();
+    }
+
+    @Nested
+    @DisplayName("purge testleri")
+    class Purge {
+
+        @Test
+        @DisplayName("Parti dolu döndükçe tekrar etmeli, kısa partide durmalı")
+        void shouldRepeatWhileBatchesAreFull() {
+            when(productRepository.purgeDeletedBefore(any(), eq(100))).thenReturn(100, 100, 37);
+            when(categoryRepository.purgeDeletedBefore(any(), eq(100))).thenReturn(2);
+
+            assertEquals(239, purger.purge());
+
+            verify(productRepository, times(3)).purgeDeletedBefore(any(), eq(100));
+            verify(categoryRepository, times(1)).purgeDeletedBefore(any(), eq(100));
+            assertEquals(237, purged("product"));
+            assertEquals(2, purged("category"));
+        }
+
+        @Test
+        @DisplayName("Önce ürünleri, sonra kategorileri saklama süresi öncesine göre silmeli")
+        void shouldPurgeProductsBeforeCategoriesWithRetentionCutoff() {
+            LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+            purger.purge();
+
+            ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+            InOrder inOrder = inOrder(productRepository, categoryRepository);
+            inOrder.verify(productRepository).purgeDeletedBefore(cutoff.capture(), eq(100));
+            inOrder.verify(categoryRepository).purgeDeletedBefore(any(), eq(100));
+            assertFalse(cutoff.getValue().isBefore(before));
+            assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(29)));
+        }
+    }
+
+    @Nested
+    @DisplayName("zamanlama testleri")
+    class Schedule {
+
+        @Test
+        @DisplayName("Kapalıyken bean oluşturulmamalı")
+        void shouldNotCreatePurgerWhenDisabled() {
+            contextRunner()
+                    .withPropertyValues("etrade.soft-delete.purge-enabled=false")
+                    .run(context -> assertTrue(context.getBeansOfType(SoftDeletePurger.class).isEmpty()));
+
+            verifyNoInteractions(productRepository, categoryRepository);
+        }
+
+        @Test
+        @DisplayName("Açıkken purge-interval aralığıyla çalışmalı")
+        void shouldRunOnSchedule() {
+            contextRunner()
+                    .withPropertyValues("etrade.soft-delete.purge-interval=10ms")
+                    .run(context -> verify(categoryRepository, timeout(2000).atLeast(2)).purgeDeletedBefore(any(), anyInt()));
+        }
+
+        @Test
+        @DisplayName("Hata veren çalıştırma sayılmalı ve zamanlayıcıya istisna taşımamalı")
+        void shouldCountFailureWithoutThrowing() {
+            when(productRepository.purgeDeletedBefore(any(), anyInt()))
+                    .thenThrow(new DataAccessResourceFailureException("db down"))
+                    .thenReturn(0);
+
+            assertDoesNotThrow(() -> purger.runScheduled());
+            purger.runScheduled();
+
+            verify(categoryRepository, times(1)).purgeDeletedBefore(any(), anyInt());
+            assertEquals(1, meterRegistry.get(MetricsConfig.PURGE_METRIC + ".failed").counter().count());
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.turkcell.etradebackend10.business.rules;
 
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
 import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,8 +13,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.SQLException;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,93 +29,175 @@ class CategoryBusinessRulesTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
     @InjectMocks
     private CategoryBusinessRules categoryBusinessRules;
 
     @Nested
-    @DisplayName("checkIfCategoryExistsById testleri")
-    class CheckIfCategoryExistsById {
+    @DisplayName("getCategoryIfExists testleri")
+    class GetCategoryIfExists {
 
         @Test
-        @DisplayName("Kategori mevcut olduğunda exception fırlatmamalı")
-        void shouldNotThrowWhenCategoryExists() {
+        @DisplayName("Kategori mevcut olduğunda tek sorgu ile kategoriyi döndürmeli")
+        void shouldReturnCategoryWhenExists() {
             // Arrange
-            when(categoryRepository.existsById(1)).thenReturn(true);
+            Category category = new Category("Elektronik", "Elektronik ürünler");
+            category.setId(1);
+            when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
 
             // Act & Assert
-            assertDoesNotThrow(() -> categoryBusinessRules.checkIfCategoryExistsById(1));
-            verify(categoryRepository, times(1)).existsById(1);
+            assertSame(category, categoryBusinessRules.getCategoryIfExists(1));
+            verify(categoryRepository, times(1)).findById(1);
+            verify(categoryRepository, never()).existsById(anyInt());
         }
 
         @Test
         @DisplayName("Kategori mevcut olmadığında BusinessException fırlatmalı")
         void shouldThrowWhenCategoryDoesNotExist() {
             // Arrange
-            when(categoryRepository.existsById(99)).thenReturn(false);
+            when(categoryRepository.findById(99)).thenReturn(Optional.empty());
 
             // Act & Assert
             BusinessException exception = assertThrows(BusinessException.class,
-                    () -> categoryBusinessRules.checkIfCategoryExistsById(99));
+                    () -> categoryBusinessRules.getCategoryIfExists(99));
             assertEquals("Kategori bulunamadı. ID: 99", exception.getMessage());
-            verify(categoryRepository, times(1)).existsById(99);
+            verify(categoryRepository, times(1)).findById(99);
         }
     }
 
     @Nested
-    @DisplayName("checkIfCategoryNameAlreadyExists testleri")
-    class CheckIfCategoryNameAlreadyExists {
+    @DisplayName("saveIfCategoryNameUnique testleri")
+    class SaveIfCategoryNameUnique {
 
         @Test
-        @DisplayName("Kategori adı mevcut olmadığında exception fırlatmamalı")
-        void shouldNotThrowWhenNameDoesNotExist() {
+        @DisplayName("İsim benzersizse kategoriyi kaydedip döndürmeli")
+        void shouldSaveWhenNameUnique() {
             // Arrange
-            when(categoryRepository.existsByName("Elektronik")).thenReturn(false);
+            Category category = new Category("Elektronik", "Elektronik ürünler");
+            when(categoryRepository.saveAndFlush(category)).thenReturn(category);
 
             // Act & Assert
-            assertDoesNotThrow(() -> categoryBusinessRules.checkIfCategoryNameAlreadyExists("Elektronik"));
-            verify(categoryRepository, times(1)).existsByName("Elektronik");
+            assertSame(category, categoryBusinessRules.saveIfCategoryNameUnique(category));
+            verify(categoryRepository, times(1)).saveAndFlush(category);
         }
 
         @Test
-        @DisplayName("Kategori adı mevcut olduğunda BusinessException fırlatmalı")
-        void shouldThrowWhenNameAlreadyExists() {
+        @DisplayName("uk_categories_name ihlalinde BusinessException fırlatmalı")
+        void shouldThrowWhenNameConstraintViolated() {
             // Arrange
-            when(categoryRepository.existsByName("Elektronik")).thenReturn(true);
+            Category category = new Category("Elektronik", "Elektronik ürünler");
+            when(categoryRepository.saveAndFlush(category)).thenThrow(new DataIntegrityViolationException("unique", new ConstraintViolationException("unique", new SQLException(), "PUBLIC.UK_CATEGORIES_NAME_INDEX_4")));
 
             // Act & Assert
             BusinessException exception = assertThrows(BusinessException.class,
-                    () -> categoryBusinessRules.checkIfCategoryNameAlreadyExists("Elektronik"));
+                    () -> categoryBusinessRules.saveIfCategoryNameUnique(category));
             assertEquals("Bu kategori adı zaten mevcut: Elektronik", exception.getMessage());
-            verify(categoryRepository, times(1)).existsByName("Elektronik");
         }
     }
 
     @Nested
-    @DisplayName("checkIfCategoryNameAlreadyExistsForUpdate testleri")
-    class CheckIfCategoryNameAlreadyExistsForUpdate {
+    @DisplayName("saveIfCategoryNameUniqueForUpdate testleri")
+    class SaveIfCategoryNameUniqueForUpdate {
 
         @Test
-        @DisplayName("Güncelleme sırasında isim başka kategoride yoksa exception fırlatmamalı")
-        void shouldNotThrowWhenNameNotUsedByAnotherCategory() {
+        @DisplayName("uk_categories_name ihlalinde güncelleme mesajı ile BusinessException fırlatmalı")
+        void shouldThrowWhenNameConstraintViolated() {
             // Arrange
-            when(categoryRepository.existsByNameAndIdNot("Elektronik", 1)).thenReturn(false);
+            Category category = new Category("Giyim", "Giyim ürünleri");
+            category.setId(1);
+            when(categoryRepository.saveAndFlush(category)).thenThrow(new DataIntegrityViolationException("unique", new ConstraintViolationException("unique", new SQLException(), "PUBLIC.UK_CATEGORIES_NAME_INDEX_4")));
 
             // Act & Assert
-            assertDoesNotThrow(() -> categoryBusinessRules.checkIfCategoryNameAlreadyExistsForUpdate(1, "Elektronik"));
-            verify(categoryRepository, times(1)).existsByNameAndIdNot("Elektronik", 1);
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> categoryBusinessRules.saveIfCategoryNameUniqueForUpdate(category));
+            assertEquals("Bu kategori adı zaten başka bir kategoriye ait: Giyim", exception.getMessage());
         }
 
         @Test
-        @DisplayName("Güncelleme sırasında isim başka kategoride varsa BusinessException fırlatmalı")
-        void shouldThrowWhenNameUsedByAnotherCategory() {
+        @DisplayName("Başka bir kısıt ihlalinde hatayı olduğu gibi fırlatmalı")
+        void shouldRethrowOtherViolations() {
             // Arrange
-            when(categoryRepository.existsByNameAndIdNot("Elektronik", 1)).thenReturn(true);
+            Category category = new Category("Giyim", "Giyim ürünleri");
+            category.setId(1);
+            DataIntegrityViolationException violation = new DataIntegrityViolationException("not null");
+            when(categoryRepository.saveAndFlush(category)).thenThrow(violation);
 
             // Act & Assert
+            assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                    () -> categoryBusinessRules.saveIfCategoryNameUniqueForUpdate(category)));
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfCategoryHasNoActiveProducts testleri")
+    class CheckIfCategoryHasNoActiveProducts {
+
+        @Test
+        @DisplayName("Aktif ürün yoksa exception fırlatmamalı")
+        void shouldPassWithoutActiveProducts() {
+            when(productRepository.existsByCategoryId(1)).thenReturn(false);
+
+            assertDoesNotThrow(() -> categoryBusinessRules.checkIfCategoryHasNoActiveProducts(1));
+        }
+
+        @Test
+        @DisplayName("Aktif ürün varsa BusinessException fırlatmalı")
+        void shouldThrowWithActiveProducts() {
+            when(productRepository.existsByCategoryId(1)).thenReturn(true);
+
             BusinessException exception = assertThrows(BusinessException.class,
-                    () -> categoryBusinessRules.checkIfCategoryNameAlreadyExistsForUpdate(1, "Elektronik"));
-            assertEquals("Bu kategori adı zaten başka bir kategoriye ait: Elektronik", exception.getMessage());
-            verify(categoryRepository, times(1)).existsByNameAndIdNot("Elektronik", 1);
+                    () -> categoryBusinessRules.checkIfCategoryHasNoActiveProducts(1));
+            assertEquals("Kategoriye ait aktif ürünler varken kategori silinemez. ID: 1", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfCategoryCanBeRestored testleri")
+    class CheckIfCategoryCanBeRestored {
+
+        @Test
+        @DisplayName("Silinmiş kategori varsa exception fırlatmamalı")
+        void shouldPassWhenDeleted() {
+            when(categoryRepository.countDeletedById(1)).thenReturn(1L);
+
+            assertDoesNotThrow(() -> categoryBusinessRules.checkIfCategoryCanBeRestored(1));
+        }
+
+        @Test
+        @DisplayName("Silinmiş kategori yoksa BusinessException fırlatmalı")
+        void shouldThrowWhenNotDeleted() {
+            when(categoryRepository.countDeletedById(99)).thenReturn(0L);
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> categoryBusinessRules.checkIfCategoryCanBeRestored(99));
+            assertEquals("Silinmiş kategori bulunamadı. ID: 99", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfCategoryVersionMatches testleri")
+    class CheckIfCategoryVersionMatches {
+
+        @Test
+        @DisplayName("Sürüm eşleşirse exception fırlatmamalı")
+        void shouldPassWhenVersionMatches() {
+            Category category = new Category("Giyim", "Giyim ürünleri");
+            category.setVersion(3);
+
+            assertDoesNotThrow(() -> categoryBusinessRules.checkIfCategoryVersionMatches(category, 3));
+        }
+
+        @Test
+        @DisplayName("Sürüm eskiyse ObjectOptimisticLockingFailureException fırlatmalı")
+        void shouldThrowWhenVersionIsStale() {
+            Category category = new Category("Giyim", "Giyim ürünleri");
+            category.setId(1);
+            category.setVersion(3);
+
+            assertThrows(ObjectOptimisticLockingFailureException.class,
+                    () -> categoryBusinessRules.checkIfCategoryVersionMatches(category, 2));
         }
     }
 }
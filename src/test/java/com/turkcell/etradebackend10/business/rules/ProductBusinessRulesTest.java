@@ -2,15 +2,29 @@ package com.turkcell.etradebackend10.business.rules;
 
 import com.turkcell.etradebackend10.business.exceptions.BusinessException;
 import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,81 +33,189 @@ class ProductBusinessRulesTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ProductNameFilter productNameFilter = new ProductNameFilter(new SimpleMeterRegistry());
+
     @InjectMocks
     private ProductBusinessRules productBusinessRules;
 
     @Nested
-    @DisplayName("checkIfProductExistsById testleri")
-    class CheckIfProductExistsById {
+    @DisplayName("getProductIfExists testleri")
+    class GetProductIfExists {
 
         @Test
-        @DisplayName("Ürün mevcut olduğunda exception fırlatmamalı")
-        void shouldNotThrowWhenProductExists() {
-            when(productRepository.existsById(1)).thenReturn(true);
+        @DisplayName("Ürün mevcut olduğunda tek sorgu ile ürünü döndürmeli")
+        void shouldReturnProductWhenExists() {
+            Product product = new Product("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", null);
+            product.setId(1);
+            when(productRepository.findById(1)).thenReturn(Optional.of(product));
 
-            assertDoesNotThrow(() -> productBusinessRules.checkIfProductExistsById(1));
-            verify(productRepository, times(1)).existsById(1);
+            assertSame(product, productBusinessRules.getProductIfExists(1));
+            verify(productRepository, times(1)).findById(1);
+            verify(productRepository, never()).existsById(anyInt());
         }
 
         @Test
         @DisplayName("Ürün mevcut olmadığında BusinessException fırlatmalı")
         void shouldThrowWhenProductDoesNotExist() {
-            when(productRepository.existsById(99)).thenReturn(false);
+            when(productRepository.findById(99)).thenReturn(Optional.empty());
 
             BusinessException exception = assertThrows(BusinessException.class,
-                    () -> productBusinessRules.checkIfProductExistsById(99));
+                    () -> productBusinessRules.getProductIfExists(99));
             assertEquals("Ürün bulunamadı. ID: 99", exception.getMessage());
-            verify(productRepository, times(1)).existsById(99);
+            verify(productRepository, times(1)).findById(99);
         }
     }
 
     @Nested
-    @DisplayName("checkIfProductNameAlreadyExists testleri")
-    class CheckIfProductNameAlreadyExists {
+    @DisplayName("saveIfProductNameUnique testleri")
+    class SaveIfProductNameUnique {
 
         @Test
-        @DisplayName("Ürün adı mevcut olmadığında exception fırlatmamalı")
-        void shouldNotThrowWhenNameDoesNotExist() {
-            when(productRepository.existsByName("Laptop")).thenReturn(false);
+        @DisplayName("İsim benzersizse ürünü ön kontrol sorgusu olmadan kaydetmeli")
+        void shouldSaveWithoutPreCheck() {
+            Product product = new Product("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", null);
+            when(productRepository.saveAndFlush(product)).thenReturn(product);
 
-            assertDoesNotThrow(() -> productBusinessRules.checkIfProductNameAlreadyExists("Laptop"));
-            verify(productRepository, times(1)).existsByName("Laptop");
+            assertSame(product, productBusinessRules.saveIfProductNameUnique(product));
+            verify(productRepository, never()).findExistingNames(anyList());
         }
 
         @Test
-        @DisplayName("Ürün adı mevcut olduğunda BusinessException fırlatmalı")
-        void shouldThrowWhenNameAlreadyExists() {
-            when(productRepository.existsByName("Laptop")).thenReturn(true);
+        @DisplayName("uk_products_name ihlalinde BusinessException fırlatmalı")
+        void shouldThrowWhenNameConstraintViolated() {
+            Product product = new Product("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", null);
+            when(productRepository.saveAndFlush(product)).thenThrow(new DataIntegrityViolationException("unique", new ConstraintViolationException("unique", new SQLException(), "PUBLIC.UK_PRODUCTS_NAME_INDEX_1")));
 
             BusinessException exception = assertThrows(BusinessException.class,
-                    () -> productBusinessRules.checkIfProductNameAlreadyExists("Laptop"));
+                    () -> productBusinessRules.saveIfProductNameUnique(product));
             assertEquals("Bu ürün adı zaten mevcut: Laptop", exception.getMessage());
-            verify(productRepository, times(1)).existsByName("Laptop");
+        }
+
+        @Test
+        @DisplayName("Başka bir kısıt ihlalinde hatayı olduğu gibi fırlatmalı")
+        void shouldRethrowOtherViolations() {
+            Product product = new Product("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", null);
+            when(productRepository.saveAndFlush(product)).thenThrow(new DataIntegrityViolationException("unique", new ConstraintViolationException("unique", new SQLException(), "PUBLIC.FK_PRODUCTS_CATEGORY_INDEX_1")));
+
+            assertThrows(DataIntegrityViolationException.class, () -> productBusinessRules.saveIfProductNameUnique(product));
+        }
+    }
+
+    @Nested
+    @DisplayName("saveIfProductNameUniqueForUpdate testleri")
+    class SaveIfProductNameUniqueForUpdate {
+
+        @Test
+        @DisplayName("uk_products_name ihlalinde güncelleme mesajı ile BusinessException fırlatmalı")
+        void shouldThrowWhenNameConstraintViolated() {
+            Product product = new Product("Telefon", "Desc", 100.0, 5, "img.jpg", null);
+            product.setId(1);
+            when(productRepository.saveAndFlush(product)).thenThrow(new DataIntegrityViolationException("unique", new ConstraintViolationException("unique", new SQLException(), "PUBLIC.UK_PRODUCTS_NAME_INDEX_1")));
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.saveIfProductNameUniqueForUpdate(product));
+            assertEquals("Bu ürün adı zaten başka bir ürüne ait: Telefon", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("saveAllIfProductNamesUnique testleri")
+    class SaveAllIfProductNamesUnique {
+
+        @Test
+        @DisplayName("Eşzamanlı eklenen isim kısıtı ihlal ederse BusinessException fırlatmalı")
+        void shouldThrowWhenNameConstraintViolated() {
+            List<Product> products = List.of(new Product("Laptop", "Desc", 100.0, 5, "img.jpg", null));
+            when(productRepository.saveAllAndFlush(products)).thenThrow(new DataIntegrityViolationException("unique", new ConstraintViolationException("unique", new SQLException(), "PUBLIC.UK_PRODUCTS_NAME_INDEX_1")));
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.saveAllIfProductNamesUnique(products));
+            assertEquals("Toplu istekteki ürün adlarından en az biri başka bir işlem tarafından eklendi.", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfProductExists testleri")
+    class CheckIfProductExists {
+
+        @Test
+        @DisplayName("Ürün varsa exception fırlatmamalı")
+        void shouldPassWhenProductExists() {
+            when(productRepository.existsById(1)).thenReturn(true);
+
+            assertDoesNotThrow(() -> productBusinessRules.checkIfProductExists(1));
+        }
+
+        @Test
+        @DisplayName("Ürün yoksa BusinessException fırlatmalı")
+        void shouldThrowWhenProductDoesNotExist() {
+            when(productRepository.existsById(99)).thenReturn(false);
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfProductExists(99));
+            assertEquals("Ürün bulunamadı. ID: 99", exception.getMessage());
         }
     }
 
     @Nested
-    @DisplayName("checkIfProductNameAlreadyExistsForUpdate testleri")
-    class CheckIfProductNameAlreadyExistsForUpdate {
+    @DisplayName("checkIfProductCanBeRestored testleri")
+    class CheckIfProductCanBeRestored {
+
+        @Test
+        @DisplayName("Silinmiş ürünün kategorisi aktifse exception fırlatmamalı")
+        void shouldPassWhenDeletedAndCategoryActive() {
+            when(productRepository.countDeletedById(1)).thenReturn(1L);
+            when(productRepository.countDeletedCategoryOf(1)).thenReturn(0L);
+
+            assertDoesNotThrow(() -> productBusinessRules.checkIfProductCanBeRestored(1));
+        }
 
         @Test
-        @DisplayName("Güncelleme sırasında isim başka üründe yoksa exception fırlatmamalı")
-        void shouldNotThrowWhenNameNotUsedByAnotherProduct() {
-            when(productRepository.existsByNameAndIdNot("Laptop", 1)).thenReturn(false);
+        @DisplayName("Silinmiş ürün yoksa BusinessException fırlatmalı")
+        void shouldThrowWhenNotDeleted() {
+            when(productRepository.countDeletedById(99)).thenReturn(0L);
 
-            assertDoesNotThrow(() -> productBusinessRules.checkIfProductNameAlreadyExistsForUpdate(1, "Laptop"));
-            verify(productRepository, times(1)).existsByNameAndIdNot("Laptop", 1);
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfProductCanBeRestored(99));
+            assertEquals("Silinmiş ürün bulunamadı. ID: 99", exception.getMessage());
+            verify(productRepository, never()).countDeletedCategoryOf(anyInt());
         }
 
         @Test
-        @DisplayName("Güncelleme sırasında isim başka üründe varsa BusinessException fırlatmalı")
-        void shouldThrowWhenNameUsedByAnotherProduct() {
-            when(productRepository.existsByNameAndIdNot("Laptop", 1)).thenReturn(true);
+        @DisplayName("Kategorisi silinmişse BusinessException fırlatmalı")
+        void shouldThrowWhenCategoryDeleted() {
+            when(productRepository.countDeletedById(1)).thenReturn(1L);
+            when(productRepository.countDeletedCategoryOf(1)).thenReturn(1L);
 
             BusinessException exception = assertThrows(BusinessException.class,
-                    () -> productBusinessRules.checkIfProductNameAlreadyExistsForUpdate(1, "Laptop"));
-            assertEquals("Bu ürün adı zaten başka bir ürüne ait: Laptop", exception.getMessage());
-            verify(productRepository, times(1)).existsByNameAndIdNot("Laptop", 1);
+                    () -> productBusinessRules.checkIfProductCanBeRestored(1));
+            assertEquals("Ürünün kategorisi silinmiş, önce kategori geri alınmalıdır. ID: 1", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfProductVersionMatches testleri")
+    class CheckIfProductVersionMatches {
+
+        @Test
+        @DisplayName("Sürüm eşleşirse exception fırlatmamalı")
+        void shouldPassWhenVersionMatches() {
+            Product product = new Product("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", null);
+            product.setVersion(3);
+
+            assertDoesNotThrow(() -> productBusinessRules.checkIfProductVersionMatches(product, 3));
+        }
+
+        @Test
+        @DisplayName("Sürüm eskiyse ObjectOptimisticLockingFailureException fırlatmalı")
+        void shouldThrowWhenVersionIsStale() {
+            Product product = new Product("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", null);
+            product.setId(1);
+            product.setVersion(3);
+
+            assertThrows(ObjectOptimisticLockingFailureException.class,
+                    () -> productBusinessRules.checkIfProductVersionMatches(product, 2));
         }
     }
 
@@ -129,4 +251,206 @@ class ProductBusinessRulesTest {
             assertEquals("Birim fiyat 0'dan küçük olamaz.", exception.getMessage());
         }
     }
+
+    @Nested
+    @DisplayName("checkIfPageLimitValid testleri")
+    class CheckIfPageLimitValid {
+
+        @Test
+        @DisplayName("Sınırlar içindeki sayfa boyutu için exception fırlatmamalı")
+        void shouldNotThrowWhenLimitIsInRange() {
+            assertDoesNotThrow(() -> productBusinessRules.checkIfPageLimitValid(1));
+            assertDoesNotThrow(() -> productBusinessRules.checkIfPageLimitValid(ProductBusinessRules.MAX_PAGE_LIMIT));
+        }
+
+        @Test
+        @DisplayName("Sıfır sayfa boyutu için BusinessException fırlatmalı")
+        void shouldThrowWhenLimitIsZero() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfPageLimitValid(0));
+            assertEquals("Sayfa boyutu 1 ile 100 arasında olmalıdır.", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Üst sınırı aşan sayfa boyutu için BusinessException fırlatmalı")
+        void shouldThrowWhenLimitExceedsMax() {
+            assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfPageLimitValid(ProductBusinessRules.MAX_PAGE_LIMIT + 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfSortNotRequestedForPaging testleri")
+    class CheckIfSortNotRequestedForPaging {
+
+        @Test
+        @DisplayName("Sıralama verilmemişse exception fırlatmamalı")
+        void shouldNotThrowWithoutSort() {
+            assertDoesNotThrow(() -> productBusinessRules.checkIfSortNotRequestedForPaging(null));
+            assertDoesNotThrow(() -> productBusinessRules.checkIfSortNotRequestedForPaging(" "));
+        }
+
+        @Test
+        @DisplayName("Sıralama verilmişse BusinessException fırlatmalı")
+        void shouldThrowWithSort() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfSortNotRequestedForPaging("unitPrice,desc"));
+            assertEquals("Sayfalı listelemede sıralama kullanılamaz; ürünler ID sırasıyla döner.", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfPriceRangeValid testleri")
+    class CheckIfPriceRangeValid {
+
+        @Test
+        @DisplayName("Sınırlardan biri boşsa veya aralık geçerliyse exception fırlatmamalı")
+        void shouldNotThrowWhenRangeValid() {
+            assertDoesNotThrow(() -> productBusinessRules.checkIfPriceRangeValid(null, null));
+            assertDoesNotThrow(() -> productBusinessRules.checkIfPriceRangeValid(100.0, null));
+            assertDoesNotThrow(() -> productBusinessRules.checkIfPriceRangeValid(10.0, 10.0));
+        }
+
+        @Test
+        @DisplayName("Minimum fiyat maksimumdan büyükse BusinessException fırlatmalı")
+        void shouldThrowWhenMinGreaterThanMax() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfPriceRangeValid(100.0, 10.0));
+            assertEquals("Minimum fiyat maksimum fiyattan büyük olamaz.", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("getSortIfValid testleri")
+    class GetSortIfValid {
+
+        @Test
+        @DisplayName("Sıralama verilmezse sırasız döndürmeli")
+        void shouldReturnUnsortedWhenEmpty() {
+            assertTrue(productBusinessRules.getSortIfValid(null).isUnsorted());
+            assertTrue(productBusinessRules.getSortIfValid(" ").isUnsorted());
+        }
+
+        @Test
+        @DisplayName("Alan ve yönü ayrıştırmalı, yön verilmezse artan sıralamalı")
+        void shouldParseFieldAndDirection() {
+            assertEquals(Sort.by(Sort.Direction.DESC, "unitPrice"), productBusinessRules.getSortIfValid("unitPrice,desc"));
+            assertEquals(Sort.by(Sort.Direction.ASC, "name"), productBusinessRules.getSortIfValid("name"));
+        }
+
+        @Test
+        @DisplayName("İzin verilmeyen alan veya yön için BusinessException fırlatmalı")
+        void shouldThrowWhenSortInvalid() {
+            BusinessException fieldException = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.getSortIfValid("category.name,asc"));
+            assertEquals("Geçersiz sıralama: category.name,asc", fieldException.getMessage());
+
+            assertThrows(BusinessException.class, () -> productBusinessRules.getSortIfValid("unitPrice,yukari"));
+            assertThrows(BusinessException.class, () -> productBusinessRules.getSortIfValid("unitPrice,desc,id"));
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfPageNumberValid testleri")
+    class CheckIfPageNumberValid {
+
+        @Test
+        @DisplayName("Sıfır veya pozitif sayfa numarası için exception fırlatmamalı")
+        void shouldNotThrowWhenPageIsNotNegative() {
+            assertDoesNotThrow(() -> productBusinessRules.checkIfPageNumberValid(0));
+            assertDoesNotThrow(() -> productBusinessRules.checkIfPageNumberValid(5));
+        }
+
+        @Test
+        @DisplayName("Negatif sayfa numarası için BusinessException fırlatmalı")
+        void shouldThrowWhenPageIsNegative() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfPageNumberValid(-1));
+            assertEquals("Sayfa numarası 0'dan küçük olamaz.", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfSearchQueryValid testleri")
+    class CheckIfSearchQueryValid {
+
+        @Test
+        @DisplayName("Harf içeren arama ifadesi için exception fırlatmamalı")
+        void shouldNotThrowWhenQueryHasTerms() {
+            assertDoesNotThrow(() -> productBusinessRules.checkIfSearchQueryValid("laptop"));
+        }
+
+        @Test
+        @DisplayName("Yalnızca boşluk ve noktalama içeren arama ifadesi için BusinessException fırlatmalı")
+        void shouldThrowWhenQueryHasNoTerms() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfSearchQueryValid(" -!"));
+            assertEquals("Arama ifadesi en az bir harf veya rakam içermelidir.", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfBulkSizeValid testleri")
+    class CheckIfBulkSizeValid {
+
+        @Test
+        @DisplayName("Sınırlar içindeki toplu işlem boyutu için exception fırlatmamalı")
+        void shouldNotThrowWhenSizeIsInRange() {
+            assertDoesNotThrow(() -> productBusinessRules.checkIfBulkSizeValid(ProductBusinessRules.MAX_BULK_SIZE));
+        }
+
+        @Test
+        @DisplayName("Boş toplu istek için BusinessException fırlatmalı")
+        void shouldThrowWhenSizeIsZero() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfBulkSizeValid(0));
+            assertEquals("Toplu işlemde ürün sayısı 1 ile 10000 arasında olmalıdır.", exception.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("checkIfProductNamesAlreadyExist testleri")
+    class CheckIfProductNamesAlreadyExist {
+
+        @Test
+        @DisplayName("Yeni isimler için exception fırlatmamalı ve isimleri parçalar halinde sorgulamalı")
+        void shouldQueryNamesInChunks() {
+            List<String> names = IntStream.range(0, 2_500).mapToObj(i -> "Ürün " + i).toList();
+            productNameFilter.rebuild(names);
+            when(productRepository.findExistingNames(anyList())).thenReturn(List.of());
+
+            assertDoesNotThrow(() -> productBusinessRules.checkIfProductNamesAlreadyExist(names));
+            verify(productRepository, times(3)).findExistingNames(anyList());
+            verify(productNameFilter, times(1)).recordFalsePositives(2_500);
+        }
+
+        @Test
+        @DisplayName("Filtrenin hiç görmediği isimler için veritabanına gitmemeli")
+        void shouldSkipQueryWhenFilterHasNotSeenNames() {
+            productNameFilter.rebuild(List.of("Laptop"));
+
+            assertDoesNotThrow(() -> productBusinessRules.checkIfProductNamesAlreadyExist(List.of("Telefon", "Tablet")));
+            verify(productRepository, never()).findExistingNames(anyList());
+        }
+
+        @Test
+        @DisplayName("Mevcut isimler varsa hepsini içeren BusinessException fırlatmalı")
+        void shouldThrowWhenNamesExist() {
+            productNameFilter.rebuild(List.of("Laptop", "Tablet"));
+            when(productRepository.findExistingNames(anyList())).thenReturn(List.of("Laptop", "Tablet"));
+
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfProductNamesAlreadyExist(List.of("Laptop", "Telefon", "Tablet")));
+            assertEquals("Bu ürün adları zaten mevcut: Laptop, Tablet", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("İstek içinde tekrarlanan isim varsa veritabanına gitmeden BusinessException fırlatmalı")
+        void shouldThrowWhenNameRepeatsInRequest() {
+            BusinessException exception = assertThrows(BusinessException.class,
+                    () -> productBusinessRules.checkIfProductNamesAlreadyExist(List.of("Laptop", "Laptop")));
+            assertEquals("Toplu istekte aynı ürün adı birden fazla kez geçiyor: Laptop", exception.getMessage());
+            verify(productRepository, never()).findExistingNames(anyList());
+        }
+    }
 }
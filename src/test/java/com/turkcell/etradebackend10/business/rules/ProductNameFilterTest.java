@@ -0,0 +1,113 @@
+package com.turkcell.etradebackend10.business.rules;
+
+import com.turkcell.etradebackend10.config.MetricsConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductNameFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductNameFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ProductNameFilter(meterRegistry);
+        filter.rebuild(List.of("Laptop", "Telefon", "Tablet"));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get(MetricsConfig.NAME_FILTER_METRIC).tag("outcome", outcome).counter().count();
+    }
+
+    @Nested
+    @DisplayName("possiblyExisting testleri")
+    class PossiblyExisting {
+
+        @Test
+        @DisplayName("Eklenmiş hiçbir ismi atlamamalı")
+        void shouldNeverMissAddedNames() {
+            List<String> names = IntStream.range(0, 50_000).mapToObj(i -> "Ürün " + i).toList();
+            filter.rebuild(names);
+
+            assertEquals(names, filter.possiblyExisting(names));
+        }
+
+        @Test
+        @DisplayName("Görülmemiş isimlerde yanlış pozitif oranı hedefe yakın kalmalı")
+        void shouldKeepFalsePositiveRateNearTarget() {
+            filter.rebuild(IntStream.range(0, 50_000).mapToObj(i -> "Ürün " + i).toList());
+            List<String> unseen = IntStream.range(0, 50_000).mapToObj(i -> "Yeni Ürün " + i).toList();
+
+            double rate = (double) filter.possiblyExisting(unseen).size() / unseen.size();
+            assertTrue(rate < ProductNameFilter.FALSE_POSITIVE_RATE * 2, "Yanlış pozitif oranı: " + rate);
+        }
+
+        @Test
+        @DisplayName("Atlanan ve kontrol edilen isimleri metrik olarak saymalı")
+        void shouldCountOutcomes() {
+            List<String> candidates = filter.possiblyExisting(List.of("Laptop", "Tablet", "Monitör"));
+            filter.recordFalsePositives(candidates.size() - 2);
+
+            assertTrue(candidates.containsAll(List.of("Laptop", "Tablet")));
+            assertEquals(candidates.size(), outcome("checked"));
+            assertEquals(3 - candidates.size(), outcome("avoided"));
+            assertEquals(candidates.size() - 2, outcome("false_positive"));
+        }
+    }
+
+    @Nested
+    @DisplayName("add/remove testleri")
+    class AddRemove {
+
+        @Test
+        @DisplayName("Eklenen isim hemen görünmeli, silinen isim kaybolmalı")
+        void shouldAddAndRemoveNames() {
+            filter.add("Monitör");
+            assertEquals(List.of("Monitör"), filter.possiblyExisting(List.of("Monitör")));
+            assertEquals(4, filter.size());
+
+            filter.remove("Monitör");
+            assertTrue(filter.possiblyExisting(List.of("Monitör")).isEmpty());
+            assertEquals(3, filter.size());
+            assertEquals(List.of("Laptop", "Telefon", "Tablet"), filter.possiblyExisting(List.of("Laptop", "Telefon", "Tablet")));
+        }
+
+        @Test
+        @DisplayName("Transaction içindeki silme commit sonrasına ertelenmeli")
+        void shouldRemoveAfterCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                filter.remove("Laptop");
+                assertEquals(List.of("Laptop"), filter.possiblyExisting(List.of("Laptop")));
+
+                List<TransactionSynchronization> synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertTrue(filter.possiblyExisting(List.of("Laptop")).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Hiç eklenmemiş ismi silmek diğer isimleri etkilememeli")
+        void shouldIgnoreRemovingUnknownName() {
+            filter.remove("Monitör");
+
+            assertEquals(3, filter.size());
+            assertEquals(List.of("Laptop", "Telefon", "Tablet"), filter.possiblyExisting(List.of("Laptop", "Telefon", "Tablet")));
+        }
+    }
+}
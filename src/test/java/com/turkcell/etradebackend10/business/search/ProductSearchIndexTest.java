@@ -0,0 +1,156 @@
+package com.turkcell.etradebackend10.business.search;
+
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetByIdProductResponse;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.SearchProductsPageResponse;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.SearchedProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.index(product(1, "Deri Çanta", "Kahverengi deri sırt çantası", 1, "Aksesuar"));
+        index.index(product(2, "Işıklı Klavye", "RGB ışıklı mekanik klavye", 2, "Elektronik"));
+        index.index(product(3, "Kablosuz Mouse", "Klavye ile uyumlu kablosuz mouse", 2, "Elektronik"));
+        index.index(product(4, "İnce Laptop", "Hafif ve ince dizüstü bilgisayar", 2, "Elektronik"));
+    }
+
+    private static GetByIdProductResponse product(int id, String name, String description, int categoryId, String categoryName) {
+        return new GetByIdProductResponse(id, name, description, 100.0 * id, 10, "img" + id + ".jpg",
+                categoryId, categoryName, LocalDateTime.now(), null, true, 0);
+    }
+
+    private static List<Integer> ids(SearchProductsPageResponse page) {
+        return page.getItems().stream().map(SearchedProductResponse::getId).toList();
+    }
+
+    @Nested
+    @DisplayName("search testleri")
+    class Search {
+
+        @Test
+        @DisplayName("Türkçe büyük/küçük harf ve karakter farklarını yok saymalı")
+        void shouldFoldTurkishCharacters() {
+            assertEquals(List.of(1), ids(index.search("CANTA", 0, 20)));
+            assertEquals(List.of(1), ids(index.search("çanta", 0, 20)));
+            assertEquals(List.of(2), ids(index.search("IŞIKLI", 0, 20)));
+            assertEquals(List.of(4), ids(index.search("ince", 0, 20)));
+        }
+
+        @Test
+        @DisplayName("Adında geçen ürün açıklamasında geçenden önce gelmeli")
+        void shouldRankNameMatchesFirst() {
+            SearchProductsPageResponse result = index.search("klavye", 0, 20);
+
+            assertEquals(List.of(2, 3), ids(result));
+            assertTrue(result.getItems().get(0).getScore() > result.getItems().get(1).getScore());
+        }
+
+        @Test
+        @DisplayName("Tüm terimleri içeren ürünleri döndürmeli, son terim önek olarak eşleşmeli")
+        void shouldMatchAllTermsWithPrefixOnLastTerm() {
+            assertEquals(List.of(3), ids(index.search("kablosuz mou", 0, 20)));
+            assertTrue(index.search("kablosuz laptop", 0, 20).getItems().isEmpty());
+            assertTrue(index.search("mou kablosuz", 0, 20).getItems().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Sonuçları sayfalamalı")
+        void shouldPaginateResults() {
+            SearchProductsPageResponse page0 = index.search("k", 0, 2);
+            SearchProductsPageResponse page1 = index.search("k", 1, 2);
+
+            assertEquals(3, page0.getTotalCount());
+            assertEquals(2, page0.getItems().size());
+            assertTrue(page0.isHasNext());
+            assertEquals(1, page1.getItems().size());
+            assertFalse(page1.isHasNext());
+            assertTrue(ids(page1).stream().noneMatch(ids(page0)::contains));
+        }
+
+        @Test
+        @DisplayName("Sonuçta ürün özet alanları dönmeli")
+        void shouldReturnProductSummary() {
+            SearchedProductResponse result = index.search("laptop", 0, 20).getItems().get(0);
+
+            assertEquals("İnce Laptop", result.getName());
+            assertEquals(400.0, result.getUnitPrice());
+            assertEquals("img4.jpg", result.getImageUrl());
+            assertEquals(2, result.getCategoryId());
+            assertEquals("Elektronik", result.getCategoryName());
+        }
+    }
+
+    @Nested
+    @DisplayName("güncelleme testleri")
+    class Updates {
+
+        @Test
+        @DisplayName("Güncellenen ürün eski terimlerle bulunmamalı")
+        void shouldReplaceTermsOnReindex() {
+            index.index(product(1, "Deri Cüzdan", "Kahverengi deri cüzdan", 1, "Aksesuar"));
+
+            assertTrue(index.search("çanta", 0, 20).getItems().isEmpty());
+            assertEquals(List.of(1), ids(index.search("cuzdan", 0, 20)));
+            assertEquals(4, index.size());
+        }
+
+        @Test
+        @DisplayName("Silinen ürün sonuçlardan çıkmalı")
+        void shouldRemoveProduct() {
+            index.remove(3);
+
+            assertEquals(List.of(2), ids(index.search("klavye", 0, 20)));
+            assertEquals(3, index.size());
+        }
+
+        @Test
+        @DisplayName("Kategori adı değişince sonuçlara yansımalı")
+        void shouldRenameCategory() {
+            index.renameCategory(2, "Bilgisayar");
+
+            assertEquals("Bilgisayar", index.search("laptop", 0, 20).getItems().get(0).getCategoryName());
+        }
+
+        @Test
+        @DisplayName("Transaction içindeki değişiklik commit sonrasına ertelenmeli")
+        void shouldApplyChangesAfterCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                index.index(product(5, "Tablet", "Android tablet", 2, "Elektronik"));
+                assertTrue(index.search("tablet", 0, 20).getItems().isEmpty());
+
+                List<TransactionSynchronization> synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertEquals(List.of(5), ids(index.search("tablet", 0, 20)));
+        }
+
+        @Test
+        @DisplayName("Yeniden oluşturma eski içeriği atmalı")
+        void shouldRebuildFromScratch() {
+            index.rebuild(List.of(product(10, "Monitör", "27 inç monitör", 2, "Elektronik")));
+
+            assertEquals(1, index.size());
+            assertEquals(List.of(10), ids(index.search("monitor", 0, 20)));
+            assertTrue(index.search("klavye", 0, 20).getItems().isEmpty());
+        }
+    }
+}
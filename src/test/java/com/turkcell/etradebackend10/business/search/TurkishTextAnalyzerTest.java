@@ -0,0 +1,31 @@
+package com.turkcell.etradebackend10.business.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TurkishTextAnalyzerTest {
+
+    @Test
+    @DisplayName("Türkçe kurallarıyla küçültüp ASCII'ye katlamalı")
+    void shouldLowerCaseWithTurkishRulesAndFold() {
+        assertEquals(List.of("isik", "istanbul", "cagri", "ozgur", "sule"),
+                TurkishTextAnalyzer.tokenize("IŞIK İstanbul ÇAĞRI Özgür Şule"));
+    }
+
+    @Test
+    @DisplayName("Harf ve rakam dışındaki karakterlerden bölmeli")
+    void shouldSplitOnNonAlphanumerics() {
+        assertEquals(List.of("usb", "c", "kablo", "2m"), TurkishTextAnalyzer.tokenize("USB-C kablo (2m)!"));
+    }
+
+    @Test
+    @DisplayName("Boş veya null metin için boş liste döndürmeli")
+    void shouldReturnEmptyListForBlankText() {
+        assertTrue(TurkishTextAnalyzer.tokenize(null).isEmpty());
+        assertTrue(TurkishTextAnalyzer.tokenize("  -- ").isEmpty());
+    }
+}
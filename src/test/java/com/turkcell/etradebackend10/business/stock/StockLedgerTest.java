@@ -0,0 +1,326 @@
+package com.turkcell.etradebackend10.business.stock;
+
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
+import com.turkcell.etradebackend10.config.CacheConfig;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.dataAccess.abstracts.StockLedgerCheckpointRepository;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import com.turkcell.etradebackend10.entities.concretes.StockLedgerCheckpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockLedgerCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityTagRegistry entityTagRegistry;
+
+    @TempDir
+    private Path directory;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private Path journal;
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.PRODUCT_BY_ID_CACHE);
+        journal = directory.resolve("stock-ledger.journal");
+        ledger = newLedger(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.stop();
+    }
+
+    private void startWithStock(StockLedger stockLedger) {
+        Product product = new Product("Telefon", "Kampanya", 100.0, 1000, "img.jpg", null);
+        product.setId(1);
+        when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+        stockLedger.start();
+    }
+
+    private StockLedger newLedger(boolean enabled) {
+        return new StockLedger(enabled, List.of(1), journal, false, productRepository,
+                checkpointRepository, transactionManager, cacheManager, entityTagRegistry, new SimpleMeterRegistry());
+    }
+
+    @Nested
+    @DisplayName("Başlatma testleri")
+    class Start {
+
+        @Test
+        @DisplayName("Bağlam yenilenirken, web sunucusu istek almadan önce başlamalı")
+        void shouldStartDuringContextRefresh() {
+            StockLedger stockLedger = mock(StockLedger.class);
+
+            // ApplicationContextRunner never runs ApplicationRunners, so this only passes if start is part of the refresh.
+            new ApplicationContextRunner()
+                    .withBean(StockLedger.class, () -> stockLedger)
+                    .withUserConfiguration(StockLedgerLoader.class)
+                    .run(context -> verify(stockLedger, times(1)).start());
+        }
+
+        @Test
+        @DisplayName("Başlamadan önce veritabanından yapılan rezervasyon tekrar satılmamalı")
+        void shouldNotResellReservationMadeBeforeStart() {
+            assertFalse(ledger.tracks(1));
+            // Before start the reservation goes to the row, so the ledger loads the stock it left behind.
+            Product product = new Product("Telefon", "Kampanya", 100.0, 990, "img.jpg", null);
+            product.setId(1);
+            when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+
+            ledger.start();
+
+            assertTrue(ledger.tracks(1));
+            assertTrue(ledger.reserve(1, 990));
+            assertFalse(ledger.reserve(1, 1));
+        }
+
+        @Test
+        @DisplayName("Zamanlanmış flush yalnızca defter çalışırken yazmalı")
+        void shouldFlushOnScheduleOnlyWhileActive() {
+            ledger.scheduledFlush();
+            verifyNoInteractions(productRepository);
+
+            startWithStock(ledger);
+            ledger.reserve(1, 2);
+            ledger.scheduledFlush();
+
+            verify(productRepository, times(1)).applyReservedStock(1, 2);
+        }
+    }
+
+    @Nested
+    @DisplayName("reserve testleri")
+    class Reserve {
+
+        @Test
+        @DisplayName("Eşzamanlı rezervasyonlar stoğu asla aşmamalı")
+        void shouldNeverOversellUnderConcurrency() throws Exception {
+            startWithStock(ledger);
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                    results.add(executor.submit(() -> ledger.reserve(1, 1)));
+                }
+                int reserved = 0;
+                for (Future<Boolean> result : results) {
+                    reserved += result.get() ? 1 : 0;
+                }
+
+                assertEquals(1000, reserved);
+            }
+            assertEquals(0, ledger.available(1));
+            assertEquals(1000, ledger.pending());
+            verify(productRepository, never()).applyReservedStock(anyInt(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Kapalıyken hiçbir ürünü takip etmemeli")
+        void shouldTrackNothingWhenDisabled() {
+            StockLedger disabled = newLedger(false);
+            disabled.start();
+
+            assertFalse(disabled.tracks(1));
+            verifyNoInteractions(productRepository);
+            assertFalse(Files.exists(journal));
+        }
+
+        @Test
+        @DisplayName("Yönetici stok değişikliğini farkı ekleyerek yansıtmalı")
+        void shouldApplyAdminStockChangeAsDifference() {
+            startWithStock(ledger);
+            ledger.reserve(1, 100);
+
+            ledger.stockChanged(1, 1000, 1500);
+
+            assertEquals(1400, ledger.available(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("flush testleri")
+    class Flush {
+
+        @Test
+        @DisplayName("Biriken rezervasyonları tek güncelleme olarak yazmalı")
+        void shouldWriteAggregatedDelta() {
+            startWithStock(ledger);
+            cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).put(1, "eski");
+            ledger.reserve(1, 2);
+            ledger.reserve(1, 3);
+
+            ledger.flush();
+            ledger.flush();
+
+            verify(productRepository, times(1)).applyReservedStock(1, 5);
+            verify(checkpointRepository, times(1)).updateFlushSequence(StockLedgerCheckpoint.LEDGER_ID, 1);
+            assertEquals(0, ledger.pending());
+            assertNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).get(1));
+            verify(entityTagRegistry, times(1)).productStockChanged(1);
+        }
+
+        @Test
+        @DisplayName("Başarısız flush rezervasyonları bir sonrakine bırakmalı")
+        void shouldKeepDeltaWhenFlushFails() {
+            startWithStock(ledger);
+            ledger.reserve(1, 2);
+            when(productRepository.applyReservedStock(1, 2)).thenThrow(new DataAccessResourceFailureException("db down"));
+
+            ledger.flush();
+            assertEquals(2, ledger.pending());
+
+            ledger.reserve(1, 3);
+            ledger.flush();
+
+            // The failed flush never committed, so its sequence number is reused.
+            verify(productRepository, times(1)).applyReservedStock(1, 5);
+            verify(checkpointRepository, times(1)).updateFlushSequence(StockLedgerCheckpoint.LEDGER_ID, 1);
+            assertEquals(0, ledger.pending());
+        }
+
+        @Test
+        @DisplayName("Flush sonrası günlüğü yalnızca bekleyen rezervasyonlara indirmeli")
+        void shouldCompactJournalAfterFlush() throws Exception {
+            startWithStock(ledger);
+            ledger.reserve(1, 2);
+            ledger.reserve(1, 3);
+
+            ledger.flush();
+            assertEquals("", Files.readString(journal));
+
+            ledger.reserve(1, 4);
+            ledger.reserve(1, 1);
+            assertEquals("R 1 4\nR 1 1\n", Files.readString(journal));
+        }
+
+        @Test
+        @DisplayName("Başarısız flush satırlarını günlükten temizlemeli")
+        void shouldDropFailedFlushFromJournal() throws Exception {
+            startWithStock(ledger);
+            ledger.reserve(1, 2);
+            when(productRepository.applyReservedStock(1, 2)).thenThrow(new DataAccessResourceFailureException("db down"));
+            ledger.flush();
+            assertEquals("R 1 2\nF 1 1 2\n", Files.readString(journal));
+
+            ledger.flush();
+
+            assertEquals("R 1 2\nF 1 1 2\n", Files.readString(journal));
+            assertEquals(2, ledger.pending());
+        }
+    }
+
+    @Nested
+    @DisplayName("Günlükten kurtarma testleri")
+    class Recovery {
+
+        @Test
+        @DisplayName("Çökme sonrası yazılmamış rezervasyonları veritabanına uygulamalı")
+        void shouldReplayUnflushedReservations() {
+            startWithStock(ledger);
+            ledger.reserve(1, 4);
+            ledger.flush();
+            ledger.reserve(1, 6);
+
+            // A second ledger over the same journal plays the restarted process; the first one never flushed the 6.
+            StockLedger restarted = newLedger(true);
+            startWithStock(restarted);
+            try {
+                verify(productRepository, times(1)).applyReservedStock(1, 4);
+                verify(productRepository, times(1)).applyReservedStock(1, 6);
+            } finally {
+                restarted.stop();
+            }
+        }
+
+        @Test
+        @DisplayName("Yarım kalmış son satırı yok saymalı")
+        void shouldIgnoreTornLastLine() throws Exception {
+            Files.writeString(journal, "R 1 3\nF 1 1 3\nR 1 2\nR 1 9");
+            when(checkpointRepository.findById(StockLedgerCheckpoint.LEDGER_ID))
+                    .thenReturn(Optional.of(new StockLedgerCheckpoint(StockLedgerCheckpoint.LEDGER_ID, 1)));
+
+            startWithStock(ledger);
+
+            verify(productRepository, times(1)).applyReservedStock(1, 2);
+            verify(productRepository, never()).applyReservedStock(1, 11);
+            assertEquals(0, Files.size(journal));
+        }
+
+        @Test
+        @DisplayName("Commit edilmemiş flush satırlarını uygulanmamış saymalı")
+        void shouldReplayFlushThatNeverCommitted() throws Exception {
+            // The process died after writing the flush lines of sequence 4 but before its transaction committed.
+            Files.writeString(journal, "R 1 5\nF 4 1 5\nR 1 2\n");
+            when(checkpointRepository.findById(StockLedgerCheckpoint.LEDGER_ID))
+                    .thenReturn(Optional.of(new StockLedgerCheckpoint(StockLedgerCheckpoint.LEDGER_ID, 3)));
+
+            startWithStock(ledger);
+
+            verify(productRepository, times(1)).applyReservedStock(1, 7);
+            verify(checkpointRepository, times(1)).updateFlushSequence(StockLedgerCheckpoint.LEDGER_ID, 4);
+        }
+
+        @Test
+        @DisplayName("Kurtarma tekrar çalışırsa aynı rezervasyonları ikinci kez uygulamamalı")
+        void shouldNotReplayRecoveryTwice() throws Exception {
+            Files.writeString(journal, "R 1 5\n");
+            doThrow(new DataAccessResourceFailureException("db down"))
+                    .when(checkpointRepository).updateFlushSequence(StockLedgerCheckpoint.LEDGER_ID, 1);
+
+            // The first start fails after writing its flush lines; the journal is then left as a crash would leave it.
+            assertThrows(DataAccessResourceFailureException.class, () -> startWithStock(ledger));
+            assertEquals("R 1 5\nF 1 1 5\n", Files.readString(journal));
+
+            // Had the replay committed, the restart must find nothing left to apply.
+            when(checkpointRepository.findById(StockLedgerCheckpoint.LEDGER_ID))
+                    .thenReturn(Optional.of(new StockLedgerCheckpoint(StockLedgerCheckpoint.LEDGER_ID, 1)));
+            StockLedger restarted = newLedger(true);
+            startWithStock(restarted);
+            try {
+                verify(productRepository, times(1)).applyReservedStock(1, 5);
+                assertEquals(0, Files.size(journal));
+            } finally {
+                restarted.stop();
+            }
+        }
+    }
+}
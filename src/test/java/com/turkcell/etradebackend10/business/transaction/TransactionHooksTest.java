@@ -0,0 +1,46 @@
+package com.turkcell.etradebackend10.business.transaction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionHooksTest {
+
+    @Test
+    @DisplayName("Transaction yokken değişiklik hemen uygulanmalı")
+    void shouldRunImmediatelyWithoutTransaction() {
+        AtomicInteger runs = new AtomicInteger();
+
+        TransactionHooks.afterCommit(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    @DisplayName("Transaction içinde değişiklik commit sonrasına ertelenmeli, rollback'te uygulanmamalı")
+    void shouldDeferUntilCommit() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            TransactionHooks.afterCommit(runs::incrementAndGet);
+            assertEquals(0, runs.get());
+
+            List<TransactionSynchronization> synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertEquals(0, runs.get());
+
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, runs.get());
+    }
+}
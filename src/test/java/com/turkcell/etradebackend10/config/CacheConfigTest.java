@@ -0,0 +1,206 @@
+package com.turkcell.etradebackend10.config;
+
+import com.turkcell.etradebackend10.business.abstracts.CategoryService;
+import com.turkcell.etradebackend10.business.abstracts.ProductService;
+import com.turkcell.etradebackend10.business.concretes.CategoryServiceImpl;
+import com.turkcell.etradebackend10.business.concretes.ProductServiceImpl;
+import com.turkcell.etradebackend10.business.etag.EntityTagRegistry;
+import com.turkcell.etradebackend10.business.rules.CategoryBusinessRules;
+import com.turkcell.etradebackend10.business.rules.ProductBusinessRules;
+import com.turkcell.etradebackend10.business.rules.ProductNameFilter;
+import com.turkcell.etradebackend10.business.search.ProductSearchIndex;
+import com.turkcell.etradebackend10.business.stock.StockLedger;
+import com.turkcell.etradebackend10.dataAccess.abstracts.CategoryRepository;
+import com.turkcell.etradebackend10.dataAccess.abstracts.ProductRepository;
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import com.turkcell.etradebackend10.entities.dtos.requests.category.UpdateCategoryRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.ReserveStockRequest;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.UpdateProductRequest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.cache.autoconfigure.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {CacheConfig.class, ProductServiceImpl.class, CategoryServiceImpl.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class CacheConfigTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private CategoryRepository categoryRepository;
+
+    @MockitoBean
+    private ProductBusinessRules productBusinessRules;
+
+    @MockitoBean
+    private CategoryBusinessRules categoryBusinessRules;
+
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockitoBean
+    private ProductNameFilter productNameFilter;
+
+    @MockitoBean
+    private EntityTagRegistry entityTagRegistry;
+
+    @MockitoBean
+    private StockLedger stockLedger;
+
+    @MockitoBean
+    private JsonMapper jsonMapper;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        category = new Category("Elektronik", "Elektronik ürünler");
+        category.setId(1);
+        product = new Product("Laptop", "İyi bir laptop", 15000.0, 10, "laptop.jpg", category);
+        product.setId(1);
+
+        when(productBusinessRules.getProductIfExists(1)).thenReturn(product);
+        when(categoryBusinessRules.getCategoryIfExists(1)).thenReturn(category);
+        when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
+        when(productBusinessRules.saveIfProductNameUniqueForUpdate(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(categoryBusinessRules.saveIfCategoryNameUniqueForUpdate(any(Category.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Aynı ürün ikinci kez istendiğinde veritabanına gidilmemeli")
+    void shouldServeRepeatedProductReadFromCache() {
+        productService.getById(1);
+        productService.getById(1);
+
+        verify(productBusinessRules, times(1)).getProductIfExists(1);
+    }
+
+    @Test
+    @DisplayName("Ürün güncellenince önbellekteki kayıt silinmeli")
+    void shouldEvictProductOnUpdate() {
+        productService.getById(1);
+        productService.update(new UpdateProductRequest(1, "Laptop Pro", "Desc", 100.0, 5, "img.jpg", 1, 0L));
+
+        assertEquals("Laptop Pro", productService.getById(1).getName());
+    }
+
+    @Test
+    @DisplayName("Ürün güncellenince ETag önbellek temizlendikten sonra değişmeli")
+    void shouldEvictProductBeforeTagChanges() {
+        productService.getById(1);
+        cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).put(1, "json");
+        doAnswer(invocation -> {
+            assertNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).get(1));
+            assertNull(cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).get(1));
+            return null;
+        }).when(entityTagRegistry).productChanged(eq(1), any(), any());
+
+        productService.update(new UpdateProductRequest(1, "Laptop Pro", "Desc", 100.0, 5, "img.jpg", 1, 0L));
+
+        verify(entityTagRegistry).productChanged(eq(1), any(), any());
+    }
+
+    @Test
+    @DisplayName("Ürün silinince önbellekteki kayıt silinmeli")
+    void shouldEvictProductOnDelete() {
+        productService.getById(1);
+        cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).put(1, "json");
+        productService.delete(1);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).get(1));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).get(1));
+    }
+
+    @Test
+    @DisplayName("Veritabanından stok rezerve edilince önbellekteki kayıt silinmeli")
+    void shouldEvictProductOnDatabaseReservation() {
+        productService.getById(1);
+        cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).put(1, "json");
+        when(productRepository.reserveStock(1, 2)).thenReturn(1);
+
+        productService.reserveStock(1, new ReserveStockRequest(2));
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).get(1));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).get(1));
+    }
+
+    @Test
+    @DisplayName("Stok defterinden rezerve edilince önbellekteki kayıt korunmalı")
+    void shouldKeepCachedProductOnLedgerReservation() {
+        productService.getById(1);
+        cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).put(1, "json");
+        when(stockLedger.tracks(1)).thenReturn(true);
+        when(stockLedger.reserve(1, 2)).thenReturn(true);
+
+        productService.reserveStock(1, new ReserveStockRequest(2));
+
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).get(1));
+        assertNotNull(cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).get(1));
+        verify(productBusinessRules, times(1)).getProductIfExists(1);
+    }
+
+    @Test
+    @DisplayName("Kategori güncellenince kategori ve ürün önbellekleri temizlenmeli")
+    void shouldEvictCategoryAndProductsOnCategoryUpdate() {
+        categoryService.getById(1);
+        productService.getById(1);
+        cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).put(1, "json");
+
+        categoryService.update(new UpdateCategoryRequest(1, "Bilgisayar", "Desc", 0L));
+
+        assertNull(cacheManager.getCache(CacheConfig.CATEGORY_BY_ID_CACHE).get(1));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).get(1));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).get(1));
+        assertEquals("Bilgisayar", productService.getById(1).getCategoryName());
+    }
+
+    @Test
+    @DisplayName("Kategori güncellenince ETag önbellekler temizlendikten sonra değişmeli")
+    void shouldEvictCachesBeforeCategoriesTagChanges() {
+        categoryService.getById(1);
+        productService.getById(1);
+        cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).put(1, "json");
+        doAnswer(invocation -> {
+            assertNull(cacheManager.getCache(CacheConfig.CATEGORY_BY_ID_CACHE).get(1));
+            assertNull(cacheManager.getCache(CacheConfig.PRODUCT_BY_ID_CACHE).get(1));
+            assertNull(cacheManager.getCache(CacheConfig.PRODUCT_JSON_CACHE).get(1));
+            return null;
+        }).when(entityTagRegistry).categoriesChanged();
+
+        categoryService.update(new UpdateCategoryRequest(1, "Bilgisayar", "Desc", 0L));
+
+        verify(entityTagRegistry).categoriesChanged();
+    }
+}
@@ -0,0 +1,49 @@
+package com.turkcell.etradebackend10.config;
+
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import(IdSequenceAligner.class)
+class IdSequenceAlignerTest {
+
+    @Autowired
+    private IdSequenceAligner idSequenceAligner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Sekans mevcut en büyük ID'nin ötesine taşınmalı")
+    void shouldMoveSequencePastExistingIds() {
+        jdbcTemplate.update("insert into categories (id, name, is_active) values (500, 'Eski Kategori', true)");
+
+        idSequenceAligner.alignAll();
+        Category category = entityManager.persistAndFlush(new Category("Yeni Kategori", "Açıklama"));
+
+        assertTrue(category.getId() > 500, "id: " + category.getId());
+    }
+
+    @Test
+    @DisplayName("Sekans zaten ileride ise yeniden başlatılmamalı")
+    void shouldLeaveSequenceAheadOfIdsUntouched() {
+        idSequenceAligner.align("products", "products_seq", 50);
+        Long before = jdbcTemplate.queryForObject("select next value for products_seq", Long.class);
+
+        idSequenceAligner.align("products", "products_seq", 50);
+        Long after = jdbcTemplate.queryForObject("select next value for products_seq", Long.class);
+
+        assertEquals(before + 100, after);
+    }
+}
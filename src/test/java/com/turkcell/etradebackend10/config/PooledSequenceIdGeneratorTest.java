@@ -0,0 +1,53 @@
+package com.turkcell.etradebackend10.config;
+
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.etrade.id.allocation-size=200"
+})
+class PooledSequenceIdGeneratorTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private SequenceStyleGenerator generatorOf(Class<?> entityClass) {
+        return (SequenceStyleGenerator) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(entityClass).getGenerator();
+    }
+
+    @Test
+    @DisplayName("Her tablo kendi pooled sekansını yapılandırılan blok boyutu ile kullanmalı")
+    void shouldUseConfiguredAllocationSizePerTable() {
+        SequenceStyleGenerator productGenerator = generatorOf(Product.class);
+        SequenceStyleGenerator categoryGenerator = generatorOf(Category.class);
+
+        assertEquals("products_seq", productGenerator.getDatabaseStructure().getPhysicalName().render());
+        assertEquals("categories_seq", categoryGenerator.getDatabaseStructure().getPhysicalName().render());
+        assertEquals(200, productGenerator.getOptimizer().getIncrementSize());
+        assertInstanceOf(PooledOptimizer.class, productGenerator.getOptimizer());
+    }
+
+    @Test
+    @DisplayName("ID'ler kayıt sırasında INSERT beklemeden atanmalı")
+    void shouldAssignIdOnPersist() {
+        Category category = entityManager.persist(new Category("Elektronik", "Açıklama"));
+
+        assertTrue(category.getId() > 0);
+    }
+}
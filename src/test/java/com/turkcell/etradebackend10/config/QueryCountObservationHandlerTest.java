@@ -0,0 +1,62 @@
+package com.turkcell.etradebackend10.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountObservationHandlerTest {
+
+    private QueryCountInspector queryCountInspector;
+    private SimpleMeterRegistry meterRegistry;
+    private ObservationRegistry observationRegistry;
+
+    @BeforeEach
+    void setUp() {
+        queryCountInspector = new QueryCountInspector();
+        meterRegistry = new SimpleMeterRegistry();
+        observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig()
+                .observationHandler(new QueryCountObservationHandler(queryCountInspector, meterRegistry));
+    }
+
+    @Test
+    @DisplayName("İstek boyunca çalışan SQL ifadeleri method ve uri etiketiyle kaydedilmeli")
+    void shouldRecordStatementsPerRequest() {
+        ServerRequestObservationContext context = new ServerRequestObservationContext(
+                new MockHttpServletRequest("GET", "/api/products/1"), new MockHttpServletResponse());
+        context.setPathPattern("/api/products/{id}");
+        Observation observation = Observation.createNotStarted(
+                new DefaultServerRequestObservationConvention(), () -> context, observationRegistry);
+
+        observation.start();
+        queryCountInspector.inspect("select 1");
+        queryCountInspector.inspect("select 2");
+        queryCountInspector.inspect("select 3");
+        observation.stop();
+
+        DistributionSummary summary = meterRegistry.get(MetricsConfig.HTTP_QUERIES_METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/api/products/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(3, summary.totalAmount());
+    }
+
+    @Test
+    @DisplayName("İstek dışında çalışan SQL ifadeleri sayılmamalı")
+    void shouldNotCountStatementsOutsideRequest() {
+        assertEquals("select 1", queryCountInspector.inspect("select 1"));
+
+        assertEquals(0, queryCountInspector.stop());
+    }
+}
@@ -0,0 +1,183 @@
+package com.turkcell.etradebackend10.dataAccess.abstracts;
+
+import com.turkcell.etradebackend10.business.rules.UniqueConstraintViolation;
+import com.turkcell.etradebackend10.entities.concretes.BaseEntity;
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import com.turkcell.etradebackend10.entities.dtos.responses.category.GetAllCategoriesResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class CategoryRepositoryTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Nested
+    @DisplayName("findAllCategoryResponses testleri")
+    class FindAllCategoryResponses {
+
+        @Test
+        @DisplayName("Kategorileri entity yüklemeden tek SQL ifadesi ile döndürmeli")
+        void shouldProjectCategoriesWithoutHydratingEntities() {
+            for (int i = 0; i < 100; i++) {
+                Category category = entityManager.persist(new Category("Kategori " + i, "Açıklama " + i));
+                entityManager.persist(new Product("Ürün " + i, "Açıklama", 10.0, 1, "img.jpg", category));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            statistics.clear();
+
+            List<GetAllCategoriesResponse> result = categoryRepository.findAllCategoryResponses();
+
+            assertEquals(100, result.size());
+            assertEquals("Kategori 0", result.get(0).getName());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals(0, statistics.getCollectionLoadCount());
+        }
+
+        @Test
+        @DisplayName("Kategori yoksa boş liste döndürmeli")
+        void shouldReturnEmptyListWhenNoCategories() {
+            assertTrue(categoryRepository.findAllCategoryResponses().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("findAllCategoryResponsesWithCounts testleri")
+    class FindAllCategoryResponsesWithCounts {
+
+        @Test
+        @DisplayName("Ürün ve stoktaki ürün sayılarını ürün yüklemeden tek sorguda döndürmeli")
+        void shouldCountProductsWithSingleGroupedQuery() {
+            Category electronics = entityManager.persist(new Category("Elektronik", "Açıklama"));
+            Category clothing = entityManager.persist(new Category("Giyim", "Açıklama"));
+            entityManager.persist(new Category("Kitap", "Açıklama"));
+            for (int i = 0; i < 30; i++) {
+                entityManager.persist(new Product("Elektronik " + i, "Açıklama", 10.0, i % 3, "img.jpg", electronics));
+            }
+            entityManager.persist(new Product("Gömlek", "Açıklama", 10.0, 5, "img.jpg", clothing));
+            entityManager.flush();
+            entityManager.clear();
+            statistics.clear();
+
+            List<GetAllCategoriesResponse> result = categoryRepository.findAllCategoryResponsesWithCounts();
+
+            assertEquals(3, result.size());
+            assertEquals("Elektronik", result.get(0).getName());
+            assertEquals(30, result.get(0).getProductCount());
+            assertEquals(20, result.get(0).getInStockCount());
+            assertEquals(1, result.get(1).getProductCount());
+            assertEquals(1, result.get(1).getInStockCount());
+            assertEquals(0, result.get(2).getProductCount());
+            assertEquals(0, result.get(2).getInStockCount());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+            assertEquals(0, statistics.getCollectionLoadCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("uk_categories_name testleri")
+    class NameUniqueConstraint {
+
+        @Test
+        @DisplayName("Aynı isimli ikinci kategori kısıt adıyla tanınan bir hata üretmeli")
+        void shouldRejectDuplicateName() {
+            entityManager.persistAndFlush(new Category("Elektronik", "İlk"));
+
+            DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                    () -> categoryRepository.saveAndFlush(new Category("Elektronik", "İkinci")));
+
+            assertTrue(UniqueConstraintViolation.matches(exception, Category.NAME_UNIQUE_CONSTRAINT));
+        }
+    }
+
+    @Nested
+    @DisplayName("Soft delete testleri")
+    class SoftDelete {
+
+        private <T extends BaseEntity> T softDeleted(T entity, LocalDateTime deletedDate) {
+            entityManager.persist(entity);
+            entity.setActive(false);
+            entity.setDeletedDate(deletedDate);
+            entityManager.flush();
+            return entity;
+        }
+
+        @Test
+        @DisplayName("Silinmiş kategoriler listede, silinmiş ürünler sayılarda yer almamalı")
+        void shouldLeaveSoftDeletedRowsOutOfListsAndCounts() {
+            Category category = entityManager.persist(new Category("Elektronik", "d"));
+            entityManager.persist(new Product("Aktif", "d", 10.0, 3, "img.jpg", category));
+            softDeleted(new Product("Silinmiş", "d", 10.0, 3, "img.jpg", category), LocalDateTime.now());
+            softDeleted(new Category("Eski", "d"), LocalDateTime.now());
+            entityManager.clear();
+
+            assertEquals(List.of("Elektronik"), categoryRepository.findAllCategoryResponses().stream().map(GetAllCategoriesResponse::getName).toList());
+            List<GetAllCategoriesResponse> counts = categoryRepository.findAllCategoryResponsesWithCounts();
+            assertEquals(1, counts.size());
+            assertEquals(1L, counts.get(0).getProductCount());
+        }
+
+        @Test
+        @DisplayName("restore kategoriyi tekrar görünür yapmalı")
+        void shouldRestoreSoftDeletedCategory() {
+            int id = softDeleted(new Category("Eski", "d"), LocalDateTime.now()).getId();
+            entityManager.clear();
+
+            assertTrue(categoryRepository.findById(id).isEmpty());
+            assertEquals(1, categoryRepository.countDeletedById(id));
+            assertEquals(1, categoryRepository.restore(id, LocalDateTime.now()));
+            entityManager.clear();
+
+            assertTrue(categoryRepository.findById(id).orElseThrow().isActive());
+        }
+
+        @Test
+        @DisplayName("Purge hâlâ bir ürünün başvurduğu kategoriyi silmemeli")
+        void shouldSkipCategoriesStillReferencedByProducts() {
+            LocalDateTime old = LocalDateTime.now().minusDays(40);
+            Category referenced = softDeleted(new Category("Başvurulan", "d"), old);
+            softDeleted(new Product("Silinmiş", "d", 10.0, 3, "img.jpg", referenced), LocalDateTime.now());
+            softDeleted(new Category("Boş", "d"), old);
+            softDeleted(new Category("Yeni", "d"), LocalDateTime.now());
+            entityManager.clear();
+
+            assertEquals(1, categoryRepository.purgeDeletedBefore(LocalDateTime.now().minusDays(30), 10));
+            assertEquals(1, categoryRepository.countDeletedById(referenced.getId()));
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.turkcell.etradebackend10.dataAccess.abstracts;
+
+import com.turkcell.etradebackend10.business.rules.UniqueConstraintViolation;
+import com.turkcell.etradebackend10.entities.concretes.Category;
+import com.turkcell.etradebackend10.entities.concretes.Product;
+import com.turkcell.etradebackend10.entities.dtos.requests.product.GetAllProductsRequest;
+import com.turkcell.etradebackend10.entities.dtos.responses.product.GetAllProductsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private int productSequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private List<Category> seedCategories(int count) {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            categories.add(entityManager.persist(new Category("Kategori " + i, "Açıklama " + i)));
+        }
+        return categories;
+    }
+
+    private void seedProducts(List<Category> categories, int count) {
+        for (int i = 0; i < count; i++, productSequence++) {
+            Category category = categories.get(i % categories.size());
+            entityManager.persist(new Product("Ürün " + productSequence, "Açıklama " + i, 10.0 + i, i % 50, "img" + i + ".jpg", category));
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    // GET /api/products without query parameters.
+    private List<GetAllProductsResponse> findAllUnfiltered() {
+        return productRepository.findProductResponses(new GetAllProductsRequest(), Sort.unsorted());
+    }
+
+    @Nested
+    @DisplayName("findProductResponses (filtresiz) testleri")
+    class FindAllProductResponses {
+
+        @Test
+        @DisplayName("10.000 ürün listelenirken tek SQL ifadesi çalıştırmalı")
+        void shouldListTenThousandProductsWithSingleStatement() {
+            seedProducts(seedCategories(50), 10_000);
+
+            List<GetAllProductsResponse> result = findAllUnfiltered();
+
+            assertEquals(10_000, result.size());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        @DisplayName("Ürün sayısı değişse de SQL ifadesi sayısı sabit kalmalı")
+        void shouldKeepStatementCountConstant() {
+            List<Category> categories = seedCategories(5);
+            seedProducts(categories, 10);
+            findAllUnfiltered();
+            long smallCount = statistics.getPrepareStatementCount();
+
+            seedProducts(categories, 1_000);
+            findAllUnfiltered();
+            long largeCount = statistics.getPrepareStatementCount();
+
+            assertEquals(smallCount, largeCount);
+        }
+
+        @Test
+        @DisplayName("Kategorisi olmayan ürün için kategori alanları boş dönmeli")
+        void shouldMapProductWithoutCategory() {
+            seedProducts(List.of(seedCategories(1).get(0)), 1);
+            entityManager.persist(new Product("Kategorisiz", "Açıklama", 5.0, 1, "img.jpg", null));
+            entityManager.flush();
+
+            List<GetAllProductsResponse> result = findAllUnfiltered();
+
+            GetAllProductsResponse withoutCategory = result.get(result.size() - 1);
+            assertEquals("Kategorisiz", withoutCategory.getName());
+            assertEquals(0, withoutCategory.getCategoryId());
+            assertNull(withoutCategory.getCategoryName());
+        }
+    }
+
+    @Nested
+    @DisplayName("findProductResponsesAfter testleri")
+    class FindProductResponsesAfter {
+
+        @Test
+        @DisplayName("Verilen ID'den sonraki ürünleri sıralı ve sınırlı döndürmeli")
+        void shouldReturnOrderedSliceAfterId() {
+            seedProducts(seedCategories(3), 30);
+            List<GetAllProductsResponse> all = findAllUnfiltered();
+            int afterId = all.get(9).getId();
+            statistics.clear();
+
+            List<GetAllProductsResponse> result = productRepository.findProductResponsesAfter(new GetAllProductsRequest(), afterId, Limit.of(5));
+
+            assertEquals(5, result.size());
+            assertEquals(all.get(10).getId(), result.get(0).getId());
+            assertEquals(all.get(14).getId(), result.get(4).getId());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        }
+
+        @Test
+        @DisplayName("Filtreleri uygulayıp sayfaları ID sırasıyla yürütmeli")
+        void shouldApplyFiltersWhilePaging() {
+            List<Category> categories = seedCategories(2);
+            seedProducts(categories, 40);
+            int categoryId = categories.get(0).getId();
+            GetAllProductsRequest filter = new GetAllProductsRequest(categoryId, 20.0, 40.0, true, null);
+
+            List<GetAllProductsResponse> firstPage = productRepository.findProductResponsesAfter(filter, 0, Limit.of(4));
+            List<GetAllProductsResponse> secondPage = productRepository.findProductResponsesAfter(
+                    filter, firstPage.get(firstPage.size() - 1).getId(), Limit.of(4));
+
+            // Products alternate between the two categories and cost 10.0 + i: 20, 22, ..., 38 match.
+            assertEquals(List.of(20.0, 22.0, 24.0, 26.0), firstPage.stream().map(GetAllProductsResponse::getUnitPrice).toList());
+            assertEquals(List.of(28.0, 30.0, 32.0, 34.0), secondPage.stream().map(GetAllProductsResponse::getUnitPrice).toList());
+            assertTrue(secondPage.stream().allMatch(product -> product.getCategoryId() == categoryId));
+        }
+    }
+
+    @Nested
+    @DisplayName("findProductResponses testleri")
+    class FindProductResponses {
+
+        @Test
+        @DisplayName("Kategori ve fiyat aralığına uyan ürünleri tek SQL ifadesi ile döndürmeli")
+        void shouldFilterByCategoryAndPriceRange() {
+            List<Category> categories = seedCategories(2);
+            seedProducts(categories, 40);
+            int categoryId = categories.get(0).getId();
+
+            List<GetAllProductsResponse> result = productRepository.findProductResponses(
+                    new GetAllProductsRequest(categoryId, 20.0, 30.0, null, null), Sort.unsorted());
+
+            // Products alternate between the two categories and cost 10.0 + i.
+            assertEquals(List.of(20.0, 22.0, 24.0, 26.0, 28.0, 30.0),
+                    result.stream().map(GetAllProductsResponse::getUnitPrice).toList());
+            assertTrue(result.stream().allMatch(product -> product.getCategoryId() == categoryId));
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+        }
+
+        @Test
+        @DisplayName("Stok filtresi stoklu veya stoksuz ürünleri ayırmalı")
+        void shouldFilterByStock() {
+            seedProducts(seedCategories(1), 100);
+
+            List<GetAllProductsResponse> inStock = productRepository.findProductResponses(
+                    new GetAllProductsRequest(null, null, null, true, null), Sort.unsorted());
+            List<GetAllProductsResponse> outOfStock = productRepository.findProductResponses(
+                    new GetAllProductsRequest(null, null, null, false, null), Sort.unsorted());
+
+            assertEquals(98, inStock.size());
+            assertEquals(2, outOfStock.size());
+            assertTrue(outOfStock.stream().allMatch(product -> product.getUnitsInStock() == 0));
+        }
+
+        @Test
+        @DisplayName("Verilen alana göre sıralamalı, eşitlikte ID'ye göre artan sıralamalı")
+        void shouldSortByFieldThenId() {
+            seedProducts(seedCategories(1), 60);
+
+            List<GetAllProductsResponse> result = productRepository.findProductResponses(
+                    new GetAllProductsRequest(), Sort.by(Sort.Direction.DESC, "unitsInStock"));
+
+            assertEquals(60, result.size());
+            // Stock is i % 50, so 49 is the highest and appears once; 9 appears twice, at i = 9 and i = 59.
+            assertEquals(49, result.get(0).getUnitsInStock());
+            List<GetAllProductsResponse> nines = result.stream().filter(product -> product.getUnitsInStock() == 9).toList();
+            assertEquals(2, nines.size());
+            assertTrue(nines.get(0).getId() < nines.get(1).getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("streamAllForExport testleri")
+    class StreamAllForExport {
+
+        @Test
+        @DisplayName("Ürünleri kategorileriyle birlikte tek SQL ifadesi ile akıtmalı")
+        void shouldStreamProductsWithCategoriesInSingleStatement() {
+            seedProducts(seedCategories(10), 200);
+
+            try (Stream<Product> products = productRepository.streamAllForExport()) {
+                List<String> categoryNames = products.map(product -> product.getCategory().getName()).toList();
+                assertEquals(200, categoryNames.size());
+            }
+            assertEquals(1, statistics.getPrepareStatementCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("findExistingNames testleri")
+    class FindExistingNames {
+
+        @Test
+        @DisplayName("Verilen isimlerden yalnızca mevcut olanları döndürmeli")
+        void shouldReturnOnlyExistingNames() {
+            seedProducts(seedCategories(1), 3);
+
+            List<String> result = productRepository.findExistingNames(List.of("Ürün 0", "Yeni Ürün", "Ürün 2"));
+
+            assertEquals(2, result.size());
+            assertTrue(result.containsAll(List.of("Ürün 0", "Ürün 2")));
+        }
+    }
+
+    @Nested
+    @DisplayName("saveAll testleri")
+    class SaveAll {
+
+        @Test
+        @DisplayName("Toplu kayıt sekans ID'leri ile JDBC batch olarak yazılmalı")
+        void shouldBatchInserts() {
+            Category category = seedCategories(1).get(0);
+            entityManager.flush();
+            statistics.clear();
+
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                products.add(new Product("Toplu " + i, "Açıklama", 10.0, 1, "img.jpg", category));
+            }
+            productRepository.saveAll(products);
+            entityManager.flush();
+
+            assertEquals(1_000, statistics.getEntityInsertCount());
+            // 10 insert batches of 100 plus one sequence call per 50 ids; IDENTITY would need 1,000 statements.
+            assertTrue(statistics.getPrepareStatementCount() <= 40,
+                    "prepared statements: " + statistics.getPrepareStatementCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("uk_products_name testleri")
+    class NameUniqueConstraint {
+
+        @Test
+        @DisplayName("Aynı isimli ikinci ürün kısıt adıyla tanınan bir hata üretmeli")
+        void shouldRejectDuplicateName() {
+            Category category = seedCategories(1).get(0);
+            entityManager.persistAndFlush(new Product("Laptop", "İlk", 10.0, 1, "img.jpg", category));
+
+            DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                    () -> productRepository.saveAndFlush(new Product("Laptop", "İkinci", 20.0, 1, "img.jpg", category)));
+
+            assertTrue(UniqueConstraintViolation.matches(exception, Product.NAME_UNIQUE_CONSTRAINT));
+            assertFalse(UniqueConstraintViolation.matches(exception, Category.NAME_UNIQUE_CONSTRAINT));
+        }
+    }
+
+    @Nested
+    @DisplayName("@Version testleri")
+    class OptimisticLocking {
+
+        @Test
+        @DisplayName("Her güncelleme sürümü bir artırmalı")
+        void shouldIncrementVersionOnUpdate() {
+            Category category = seedCategories(1).get(0);
+            Product product = entityManager.persistAndFlush(new Product("Laptop", "İlk", 10.0, 1, "img.jpg", category));
+            assertEquals(0, product.getVersion());
+
+            product.setUnitPrice(20.0);
+            entityManager.flush();
+
+            assertEquals(1, product.getVersion());
+        }
+
+        @Test
+        @DisplayName("Eski sürümle kaydedilen kopya ObjectOptimisticLockingFailureException üretmeli")
+        void shouldRejectStaleCopy() {
+            Category category = seedCategories(1).get(0);
+            int id = entityManager.persistAndFlush(new Product("Laptop", "İlk", 10.0, 1, "img.jpg", category)).getId();
+            entityManager.clear();
+
+            Product first = productRepository.findById(id).orElseThrow();
+            entityManager.detach(first);
+            Product second = productRepository.findById(id).orElseThrow();
+            entityManager.detach(second);
+
+            first.setUnitPrice(20.0);
+            productRepository.saveAndFlush(first);
+            entityManager.clear();
+
+            second.setUnitPrice(30.0);
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> productRepository.saveAndFlush(second));
+        }
+    }
+
+    @Nested
+    @DisplayName("Soft delete testleri")
+    class SoftDelete {
+
+        // @PrePersist always activates a new row, so it is deactivated with a second write like a real delete.
+        private Product softDeleted(Product product, LocalDateTime deletedDate) {
+            entityManager.persist(product);
+            product.setActive(false);
+            product.setDeletedDate(deletedDate);
+            entityManager.flush();
+            return product;
+        }
+
+        @Test
+        @DisplayName("Silinmiş ürün entity okumalarında ve güncellemelerde görünmemeli")
+        void shouldHideSoftDeletedRows() {
+            Category category = seedCategories(1).get(0);
+            entityManager.persist(new Product("Aktif", "d", 10.0, 5, "img.jpg", category));
+            int deletedId = softDeleted(new Product("Silinmiş", "d", 10.0, 5, "img.jpg", category), LocalDateTime.now()).getId();
+            entityManager.clear();
+
+            assertTrue(productRepository.findById(deletedId).isEmpty());
+            assertFalse(productRepository.existsById(deletedId));
+            assertEquals(List.of("Aktif"), findAllUnfiltered().stream().map(GetAllProductsResponse::getName).toList());
+            assertEquals(1, productRepository.findProductResponses(new GetAllProductsRequest(category.getId(), null, null, null, null), Sort.unsorted()).size());
+            assertEquals(0, productRepository.reserveStock(deletedId, 1));
+        }
+
+        @Test
+        @DisplayName("İsim sorguları silinmiş ürünlerin isimlerini de döndürmeli")
+        void shouldKeepDeletedNamesReserved() {
+            Category category = seedCategories(1).get(0);
+            softDeleted(new Product("Silinmiş", "d", 10.0, 5, "img.jpg", category), LocalDateTime.now());
+            entityManager.clear();
+
+            assertEquals(List.of("Silinmiş"), productRepository.findExistingNames(List.of("Silinmiş", "Yeni")));
+            assertTrue(productRepository.findAllNames().contains("Silinmiş"));
+        }
+
+        @Test
+        @DisplayName("restore ürünü tekrar görünür yapmalı ve sürümü artırmalı")
+        void shouldRestoreSoftDeletedRow() {
+            Category category = seedCategories(1).get(0);
+            int id = softDeleted(new Product("Silinmiş", "d", 10.0, 5, "img.jpg", category), LocalDateTime.now()).getId();
+            entityManager.clear();
+
+            assertEquals(1, productRepository.countDeletedById(id));
+            assertEquals(1, productRepository.restore(id, LocalDateTime.now()));
+            assertEquals(0, productRepository.restore(id, LocalDateTime.now()));
+            entityManager.clear();
+
+            Product product = productRepository.findById(id).orElseThrow();
+            assertTrue(product.isActive());
+            assertNull(product.getDeletedDate());
+            // One bump for the delete, one for the restore.
+            assertEquals(2, product.getVersion());
+            assertEquals(0, productRepository.countDeletedById(id));
+        }
+
+        @Test
+        @DisplayName("Purge yalnızca saklama süresini aşmış silinmiş ürünleri parti boyutu kadar silmeli")
+        void shouldPurgeOldDeletedRowsInBatches() {
+            Category category = seedCategories(1).get(0);
+            LocalDateTime old = LocalDateTime.now().minusDays(40);
+            for (int i = 0; i < 5; i++) {
+                softDeleted(new Product("Eski " + i, "d", 10.0, 5, "img.jpg", category), old.plusMinutes(i));
+            }
+            int recentId = softDeleted(new Product("Yeni", "d", 10.0, 5, "img.jpg", category), LocalDateTime.now()).getId();
+            int activeId = entityManager.persistAndFlush(new Product("Aktif", "d", 10.0, 5, "img.jpg", category)).getId();
+            entityManager.clear();
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
+
+            assertEquals(2, productRepository.purgeDeletedBefore(cutoff, 2));
+            assertEquals(2, productRepository.purgeDeletedBefore(cutoff, 2));
+            assertEquals(1, productRepository.purgeDeletedBefore(cutoff, 2));
+            assertEquals(0, productRepository.purgeDeletedBefore(cutoff, 2));
+
+            assertEquals(List.of("Aktif", "Yeni"), productRepository.findAllNames().stream().sorted().toList());
+            assertEquals(1, productRepository.countDeletedById(recentId));
+            assertTrue(productRepository.existsById(activeId));
+        }
+
+        @Test
+        @DisplayName("Aktif satır filtresi ve purge sorgusu is_active içeren indeksleri kullanmalı")
+        void shouldSeekIndexesWithActiveFlag() {
+            Category category = seedCategories(1).get(0);
+            seedProducts(List.of(category), 200);
+
+            String filtered = explain("select id from products where is_active = true and category_id = 1 and unit_price >= 10");
+            String priceOnly = explain("select id from products where is_active = true and unit_price between 10 and 20");
+            String purge = explain("select id from products where is_active = false and deleted_date < current_timestamp");
+
+            assertTrue(filtered.contains("IDX_PRODUCTS_CATEGORY_ACTIVE_PRICE"), filtered);
+            assertTrue(priceOnly.contains("IDX_PRODUCTS_ACTIVE_PRICE"), priceOnly);
+            assertTrue(purge.contains("IDX_PRODUCTS_DELETED"), purge);
+        }
+
+        @Test
+        @DisplayName("Kategori yabancı anahtarını category_id ile başlayan bir indeks karşılamalı")
+        void shouldLeadAnIndexWithCategoryId() {
+            // H2 indexes foreign keys on its own and PostgreSQL does not, so the mapping itself is checked.
+            Index[] indexes = Product.class.getAnnotation(Table.class).indexes();
+
+            assertTrue(Arrays.stream(indexes).anyMatch(index -> index.columnList().startsWith("category_id")));
+        }
+
+        private String explain(String sql) {
+            return String.valueOf(entityManager.getEntityManager().createNativeQuery("explain " + sql).getSingleResult()).toUpperCase();
+        }
+    }
+
+    @Nested
+    @DisplayName("reserveStock testleri")
+    class ReserveStock {
+
+        @Test
+        @DisplayName("Stok yeterliyse düşmeli ve sürümü artırmalı")
+        void shouldDecrementStockAndBumpVersion() {
+            Category category = seedCategories(1).get(0);
+            int id = entityManager.persistAndFlush(new Product("Laptop", "İlk", 10.0, 5, "img.jpg", category)).getId();
+            entityManager.clear();
+
+            assertEquals(1, productRepository.reserveStock(id, 3));
+
+            Product product = productRepository.findById(id).orElseThrow();
+            assertEquals(2, product.getUnitsInStock());
+            assertEquals(1, product.getVersion());
+        }
+
+        @Test
+        @DisplayName("Stok yetersizse hiçbir satırı değiştirmemeli")
+        void shouldNotTouchRowWhenStockIsInsufficient() {
+            Category category = seedCategories(1).get(0);
+            int id = entityManager.persistAndFlush(new Product("Laptop", "İlk", 10.0, 2, "img.jpg", category)).getId();
+            entityManager.clear();
+
+            assertEquals(0, productRepository.reserveStock(id, 3));
+
+            Product product = productRepository.findById(id).orElseThrow();
+            assertEquals(2, product.getUnitsInStock());
+            assertEquals(0, product.getVersion());
+        }
+
+        @Test
+        @Transactional(propagation = Propagation.NOT_SUPPORTED)
+        @DisplayName("Eşzamanlı rezervasyonlar stoğu asla eksiye düşürmemeli")
+        void shouldNeverOversellUnderConcurrency() throws Exception {
+            Category category = categoryRepository.save(new Category("Stok Yarışı", "Eşzamanlılık"));
+            Product product = productRepository.save(new Product("Stok Yarışı Ürünü", "Eşzamanlılık", 10.0, 100, "img.jpg", category));
+            try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int i = 0; i < 250; i++) {
+                    results.add(executor.submit(() -> productRepository.reserveStock(product.getId(), 1)));
+                }
+                int reserved = 0;
+                for (Future<Integer> result : results) {
+                    reserved += result.get();
+                }
+
+                assertEquals(100, reserved);
+                assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getUnitsInStock());
+            } finally {
+                productRepository.deleteById(product.getId());
+                categoryRepository.deleteById(category.getId());
+            }
+        }
+    }
+}